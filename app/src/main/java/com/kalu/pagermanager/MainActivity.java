@@ -68,18 +68,17 @@ public class MainActivity extends AppCompatActivity implements PagerGridLayoutMa
         final RecyclerView recycler = findViewById(R.id.recycler_view);
         final PagerGridLayoutManager manager = (PagerGridLayoutManager) recycler.getLayoutManager();
         manager.refreshLayoutManager(3, 4, LinearLayout.HORIZONTAL);
-        recycler.getAdapter().notifyDataSetChanged();
     }
 
     public void addOne(View view) {
         mAdapter.data.add(0, "add");
-        mAdapter.notifyDataSetChanged();
+        mAdapter.notifyItemInserted(0);
     }
 
     public void removeOne(View view) {
         if (mAdapter.data.size() > 0) {
             mAdapter.data.remove(0);
-            mAdapter.notifyDataSetChanged();
+            mAdapter.notifyItemRemoved(0);
         }
     }
 
@@ -88,8 +87,9 @@ public class MainActivity extends AppCompatActivity implements PagerGridLayoutMa
         for (int i = 1; i <= 5; i++) {
             data.add(i + "a");
         }
+        final int positionStart = mAdapter.data.size();
         mAdapter.data.addAll(data);
-        mAdapter.notifyDataSetChanged();
+        mAdapter.notifyItemRangeInserted(positionStart, data.size());
     }
 
     public void prePage(View view) {
@@ -0,0 +1,42 @@
+package lib.kalu.pagermanager.benchmark;
+
+/**
+ * description: 模拟 RecyclerView.Recycler, 只记录条目下标和创建/绑定次数
+ */
+final class FakeRecycler {
+
+    static final class FakeView {
+        int position = -1;
+    }
+
+    private FakeView[] mPool = new FakeView[16];    // 回收池
+    private int mPoolSize = 0;
+
+    int created = 0;                                // 创建次数
+    int bound = 0;                                  // 绑定次数
+
+    FakeView getViewForPosition(int position) {
+        final FakeView view;
+        if (mPoolSize > 0) {
+            view = mPool[--mPoolSize];
+            mPool[mPoolSize] = null;
+        } else {
+            view = new FakeView();
+            created++;
+        }
+        if (view.position != position) {
+            view.position = position;
+            bound++;
+        }
+        return view;
+    }
+
+    void recycleView(FakeView view) {
+        if (mPoolSize == mPool.length) {
+            final FakeView[] pool = new FakeView[mPool.length * 2];
+            System.arraycopy(mPool, 0, pool, 0, mPoolSize);
+            mPool = pool;
+        }
+        mPool[mPoolSize++] = view;
+    }
+}
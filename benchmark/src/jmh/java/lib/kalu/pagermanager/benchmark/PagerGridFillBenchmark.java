@@ -0,0 +1,142 @@
+package lib.kalu.pagermanager.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import lib.kalu.pagermanager.PagerGridGeometry;
+import lib.kalu.pagermanager.PagerGridSpanSizeLookup;
+
+/**
+ * description: 模拟 PagerGridLayoutManager 的回收和填充过程
+ * scrollFrame 对应 scrollHorizontallyBy/scrollVerticallyBy 的增量填充, layoutPass 对应 onLayoutChildren 的全量填充
+ * 遍历使用 PagerGridGeometry#startFill, 与 PagerGridLayoutManager#fillPage 相同; isAttached 对应 findViewByPosition
+ */
+@State(Scope.Thread)
+public class PagerGridFillBenchmark {
+
+    private static final int PAGE_WIDTH = 1080;
+    private static final int PAGE_HEIGHT = 720;
+    private static final int FRAME_DELTA = 24;      // 每帧滚动距离
+
+    @Param({"2x3", "3x4", "4x6"})
+    public String grid;                             // 行数x列数
+
+    @Param({"100", "10000", "1000000"})
+    public int itemCount;                           // 条目总数
+
+    @Param({"0", "1"})
+    public int orientation;                         // 分页方向, 0 水平, 1 垂直
+
+    @Param({"false", "true"})
+    public boolean spans;                           // 是否有跨行跨列的条目
+
+    private PagerGridGeometry mGeometry;
+    private FakeRecycler mRecycler;
+    private FakeRecycler.FakeView[] mChildren;      // 已经添加的View
+    private int mChildCount = 0;
+
+    private int mOffset = 0;
+    private int mMaxScroll = 0;
+    private int mDelta = FRAME_DELTA;
+
+    @Setup
+    public void setup() {
+        mGeometry = createGeometry(grid, orientation, spans);
+        mRecycler = new FakeRecycler();
+        mChildren = new FakeRecycler.FakeView[mGeometry.getWindowCellCount()];
+        mMaxScroll = orientation == PagerGridGeometry.HORIZONTAL ? mGeometry.getMaxScrollX(itemCount) : mGeometry.getMaxScrollY(itemCount);
+        mOffset = 0;
+        layoutPass();
+    }
+
+    /**
+     * 创建压测用的几何计算, 有跨行跨列时每 5 个条目有一个占两列, 每 11 个条目有一个占两行两列
+     */
+    static PagerGridGeometry createGeometry(String grid, int orientation, boolean spans) {
+        final String[] split = grid.split("x");
+        final PagerGridGeometry geometry = new PagerGridGeometry(Integer.parseInt(split[0]), Integer.parseInt(split[1]), orientation);
+        geometry.setPageSize(PAGE_WIDTH, PAGE_HEIGHT);
+        if (spans) {
+            geometry.setSpanSizeLookup(new PagerGridSpanSizeLookup() {
+                @Override
+                public int getRowSpan(int position) {
+                    return position % 11 == 0 ? 2 : 1;
+                }
+
+                @Override
+                public int getColumnSpan(int position) {
+                    return position % 11 == 0 || position % 5 == 0 ? 2 : 1;
+                }
+            });
+        }
+        return geometry;
+    }
+
+    @Benchmark
+    public int scrollFrame() {
+        // 到达边界后反向滚动
+        int next = mOffset + mDelta;
+        if (next > mMaxScroll || next < 0) {
+            mDelta = -mDelta;
+            next = Math.max(0, Math.min(mMaxScroll, mOffset + mDelta));
+        }
+        mOffset = next;
+
+        computeWindow();
+        for (int i = mChildCount - 1; i >= 0; i--) {
+            if (!mGeometry.isInWindow(mChildren[i].position)) {
+                removeChildAt(i);
+            }
+        }
+        fill();
+        return mChildCount;
+    }
+
+    @Benchmark
+    public int layoutPass() {
+        computeWindow();
+        for (int i = mChildCount - 1; i >= 0; i--) {
+            removeChildAt(i);
+        }
+        fill();
+        return mChildCount;
+    }
+
+    private void computeWindow() {
+        if (orientation == PagerGridGeometry.HORIZONTAL) {
+            mGeometry.computeWindow(mOffset, 0, itemCount);
+        } else {
+            mGeometry.computeWindow(0, mOffset, itemCount);
+        }
+    }
+
+    private void fill() {
+        final PagerGridGeometry geometry = mGeometry;
+        for (int page = geometry.getWindowStartPage(); page <= geometry.getWindowStopPage(); page++) {
+            geometry.startFill(page, itemCount);
+            for (int position = geometry.nextFillPosition(); position >= 0; position = geometry.nextFillPosition()) {
+                if (!isAttached(position)) {
+                    mChildren[mChildCount++] = mRecycler.getViewForPosition(position);
+                }
+            }
+        }
+    }
+
+    private boolean isAttached(int position) {
+        for (int i = 0; i < mChildCount; i++) {
+            if (mChildren[i].position == position)
+                return true;
+        }
+        return false;
+    }
+
+    private void removeChildAt(int index) {
+        mRecycler.recycleView(mChildren[index]);
+        mChildCount--;
+        System.arraycopy(mChildren, index + 1, mChildren, index, mChildCount - index);
+        mChildren[mChildCount] = null;
+    }
+}
@@ -0,0 +1,83 @@
+package lib.kalu.pagermanager.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import lib.kalu.pagermanager.PagerGridGeometry;
+
+/**
+ * description: 几何计算压测, 条目位置, 页面下标, 可见范围和对齐偏移量
+ */
+@State(Scope.Thread)
+public class PagerGridGeometryBenchmark {
+
+    private static final int MASK = 1023;           // 预先生成的随机输入数量 - 1
+
+    @Param({"2x3", "3x4", "4x6"})
+    public String grid;                             // 行数x列数
+
+    @Param({"100", "10000", "1000000"})
+    public int itemCount;                           // 条目总数
+
+    @Param({"0", "1"})
+    public int orientation;                         // 分页方向, 0 水平, 1 垂直
+
+    @Param({"false", "true"})
+    public boolean spans;                           // 是否有跨行跨列的条目
+
+    private PagerGridGeometry mGeometry;
+    private final int[] mPositions = new int[MASK + 1];
+    private final int[] mOffsets = new int[MASK + 1];
+    private int mIndex = 0;
+
+    @Setup
+    public void setup() {
+        mGeometry = PagerGridFillBenchmark.createGeometry(grid, orientation, spans);
+
+        final Random random = new Random(1);
+        final int maxScroll = orientation == PagerGridGeometry.HORIZONTAL ? mGeometry.getMaxScrollX(itemCount) : mGeometry.getMaxScrollY(itemCount);
+        for (int i = 0; i <= MASK; i++) {
+            mPositions[i] = random.nextInt(itemCount);
+            mOffsets[i] = maxScroll <= 0 ? 0 : random.nextInt(maxScroll);
+        }
+    }
+
+    @Benchmark
+    public int positionToRect() {
+        final int pos = mPositions[mIndex++ & MASK];
+        return mGeometry.getCellLeft(pos) + mGeometry.getCellTop(pos) + mGeometry.getCellRight(pos) + mGeometry.getCellBottom(pos);
+    }
+
+    @Benchmark
+    public int pageIndexByPos() {
+        return mGeometry.getPageIndexByPos(mPositions[mIndex++ & MASK]);
+    }
+
+    @Benchmark
+    public int pageIndexByOffset() {
+        return mGeometry.getPageIndexByOffset(mOffsets[mIndex++ & MASK]);
+    }
+
+    @Benchmark
+    public int visibleRange() {
+        final int offset = mOffsets[mIndex++ & MASK];
+        if (orientation == PagerGridGeometry.HORIZONTAL) {
+            mGeometry.computeWindow(offset, 0, itemCount);
+        } else {
+            mGeometry.computeWindow(0, offset, itemCount);
+        }
+        return mGeometry.getWindowFirstPosition(itemCount) + mGeometry.getWindowLastPosition(itemCount);
+    }
+
+    @Benchmark
+    public int snapOffset() {
+        final int offset = mOffsets[mIndex++ & MASK];
+        final int page = mGeometry.getPageIndexByOffset(offset);
+        return (orientation == PagerGridGeometry.HORIZONTAL ? mGeometry.getPageLeft(page) : mGeometry.getPageTop(page)) - offset;
+    }
+}
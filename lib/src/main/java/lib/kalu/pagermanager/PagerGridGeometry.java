@@ -0,0 +1,847 @@
+package lib.kalu.pagermanager;
+
+/**
+ * description: 分页网格的几何计算, 不依赖 Android, 可以直接在 JVM 上测试和压测
+ * 所有查询都是 O(1) 的算术运算, 不创建对象
+ * 设置了跨行跨列条目时, 条目到页面的查询由 {@link PagerGridSpanIndex} 完成, 为 O(log n)
+ */
+public final class PagerGridGeometry {
+
+    public static final int HORIZONTAL = 0;         // 水平分页
+    public static final int VERTICAL = 1;           // 垂直分页
+
+    private int mOrientation;                       // 分页方向
+
+    private int mRows;                              // 行数
+    private int mColumns;                           // 列数
+    private int mOnePageSize;                       // 一页的条目数量
+
+    // 页面宽度, 页面高度(去除内边距)
+    private int mPageWidth = 0, mPageHeight = 0;
+    // 条目宽度, 条目高度
+    private int mItemWidth = 0, mItemHeight = 0;
+
+    // 可见窗口(整个滚动区域中的位置)
+    private int mWindowLeft = 0, mWindowTop = 0, mWindowRight = 0, mWindowBottom = 0;
+    // 与可见窗口相交的页面范围, mWindowStopPage < mWindowStartPage 表示没有可见页面
+    private int mWindowStartPage = 0, mWindowStopPage = -1;
+    // 可见窗口前后额外保留的整页数量
+    private int mOffscreenPageLimit = 0;
+    // 是否循环分页, 循环时的页面总数(0 表示当前没有循环)
+    private boolean mCircular = false;
+    private int mWrapPages = 0;
+
+    // 跨行跨列条目的分页索引, null 表示每个条目占用一个格子
+    private PagerGridSpanIndex mSpanIndex = null;
+
+    // 正在填充的页面: 第一个条目, 当前行列和与可见窗口相交的行列范围
+    private int mFillPageStart = 0, mFillRow = 0, mFillRowStop = -1, mFillColumn = 0, mFillColumnStart = 0, mFillColumnStop = -1;
+    // 跨行跨列时按下标遍历的当前位置和结束位置(不包含), 条目总数
+    private int mFillPosition = 0, mFillEnd = 0, mFillItemCount = 0;
+
+    public PagerGridGeometry(int rows, int columns, int orientation) {
+        setup(rows, columns, orientation);
+    }
+
+    /**********************************************************************************************/
+
+    /**
+     * 设置行数, 列数和分页方向
+     *
+     * @param rows        行数
+     * @param columns     列数
+     * @param orientation 分页方向
+     */
+    public void setup(int rows, int columns, int orientation) {
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException("rows and columns must be > 0, rows = " + rows + ", columns = " + columns);
+
+        mOrientation = orientation;
+        mRows = rows;
+        mColumns = columns;
+        mOnePageSize = rows * columns;
+        updateItemSize();
+        if (null != mSpanIndex) {
+            mSpanIndex.setGrid(rows, columns);
+        }
+    }
+
+    /**
+     * 设置条目占用的行数和列数
+     *
+     * @param lookup 条目占用的行数和列数, null 表示每个条目占用一个格子
+     */
+    public void setSpanSizeLookup(PagerGridSpanSizeLookup lookup) {
+        mSpanIndex = null == lookup ? null : new PagerGridSpanIndex(lookup, mRows, mColumns);
+    }
+
+    public PagerGridSpanSizeLookup getSpanSizeLookup() {
+        return null == mSpanIndex ? null : mSpanIndex.getLookup();
+    }
+
+    public boolean hasSpans() {
+        return null != mSpanIndex;
+    }
+
+    /**
+     * 条目发生变化, 从条目所在的页面开始重新分页, 预布局结束后生效
+     *
+     * @param position 第一个发生变化的条目
+     */
+    public void invalidateSpans(int position) {
+        if (null != mSpanIndex) {
+            mSpanIndex.invalidateFrom(position);
+        }
+    }
+
+    /**
+     * 设置预布局时按照预布局位置查询行数和列数的方法, 预布局结束后设置为 null
+     *
+     * @param lookup 预布局使用的查询
+     */
+    public void setPreLayoutSpanSizeLookup(PagerGridSpanSizeLookup lookup) {
+        if (null != mSpanIndex) {
+            mSpanIndex.setPreLayoutLookup(lookup);
+        }
+    }
+
+    /**
+     * 设置页面大小
+     *
+     * @param pageWidth  页面宽度(去除内边距)
+     * @param pageHeight 页面高度(去除内边距)
+     * @return 页面大小是否发生变化
+     */
+    public boolean setPageSize(int pageWidth, int pageHeight) {
+        pageWidth = Math.max(0, pageWidth);
+        pageHeight = Math.max(0, pageHeight);
+        if (pageWidth == mPageWidth && pageHeight == mPageHeight)
+            return false;
+        mPageWidth = pageWidth;
+        mPageHeight = pageHeight;
+        updateItemSize();
+        return true;
+    }
+
+    public void setOrientation(int orientation) {
+        mOrientation = orientation;
+    }
+
+    private void updateItemSize() {
+        mItemWidth = mPageWidth / mColumns;
+        mItemHeight = mPageHeight / mRows;
+    }
+
+    /**********************************************************************************************/
+
+    public int getOrientation() {
+        return mOrientation;
+    }
+
+    public boolean isHorizontal() {
+        return mOrientation == HORIZONTAL;
+    }
+
+    public int getRows() {
+        return mRows;
+    }
+
+    public int getColumns() {
+        return mColumns;
+    }
+
+    public int getOnePageSize() {
+        return mOnePageSize;
+    }
+
+    public int getPageWidth() {
+        return mPageWidth;
+    }
+
+    public int getPageHeight() {
+        return mPageHeight;
+    }
+
+    /**
+     * 分页方向上的页面大小
+     *
+     * @return 水平分页为页面宽度, 垂直分页为页面高度
+     */
+    public int getPageSize() {
+        return mOrientation == HORIZONTAL ? mPageWidth : mPageHeight;
+    }
+
+    public int getItemWidth() {
+        return mItemWidth;
+    }
+
+    public int getItemHeight() {
+        return mItemHeight;
+    }
+
+    /**
+     * 是否已经确定了页面和条目大小
+     *
+     * @return true 可以进行布局
+     */
+    public boolean isReady() {
+        return mItemWidth > 0 && mItemHeight > 0;
+    }
+
+    /**************************************    页面    ********************************************/
+
+    /**
+     * 获取页面总数
+     * 有跨行跨列条目时需要分页到最后一个条目, 数据变化后第一次调用为 O(n)
+     *
+     * @param itemCount 条目总数
+     * @return 页面总数
+     */
+    public int getPagesCount(int itemCount) {
+        if (itemCount <= 0)
+            return 0;
+        if (null != mSpanIndex)
+            return mSpanIndex.getPagesCount(itemCount);
+        return (itemCount - 1) / mOnePageSize + 1;
+    }
+
+    /**
+     * 根据pos，获取该View所在的页面
+     *
+     * @param pos position
+     * @return 页面的页码
+     */
+    public int getPageIndexByPos(int pos) {
+        if (null != mSpanIndex)
+            return mSpanIndex.getPageIndexByPos(pos);
+        return pos / mOnePageSize;
+    }
+
+    /**
+     * 获取页面的第一个条目的位置
+     *
+     * @param page      页码
+     * @param itemCount 条目总数
+     * @return 第一个条目的位置, 页面不存在时不小于 itemCount
+     */
+    public int getPageFirstPosition(int page, int itemCount) {
+        if (null != mSpanIndex)
+            return mSpanIndex.getPageFirstPosition(page, itemCount);
+        return page * mOnePageSize;
+    }
+
+    /**
+     * 获取页面最后一个条目之后的位置
+     *
+     * @param page      页码
+     * @param itemCount 条目总数
+     * @return 最后一个条目的位置 + 1
+     */
+    public int getPageEndPosition(int page, int itemCount) {
+        return Math.min(itemCount, getPageFirstPosition(page + 1, itemCount));
+    }
+
+    /**
+     * 根据偏移量获取页面(超过半页时算作下一页)
+     *
+     * @param offset 分页方向上的偏移量
+     * @return 页面的页码
+     */
+    public int getPageIndexByOffset(int offset) {
+        final int pageSize = getPageSize();
+        if (offset <= 0 || pageSize <= 0)
+            return 0;
+        int pageIndex = offset / pageSize;
+        if (offset % pageSize > pageSize / 2) {
+            pageIndex++;
+        }
+        return pageIndex;
+    }
+
+    /**
+     * 获取页面左上角在整个滚动区域中的 X 坐标
+     *
+     * @param page 页码
+     * @return X 坐标
+     */
+    public int getPageLeft(int page) {
+        return mOrientation == HORIZONTAL ? page * mPageWidth : 0;
+    }
+
+    /**
+     * 获取页面左上角在整个滚动区域中的 Y 坐标
+     *
+     * @param page 页码
+     * @return Y 坐标
+     */
+    public int getPageTop(int page) {
+        return mOrientation == HORIZONTAL ? 0 : page * mPageHeight;
+    }
+
+    /**
+     * 最大允许滑动的宽度
+     *
+     * @param itemCount 条目总数
+     * @return 最大滑动宽度
+     */
+    public int getMaxScrollX(int itemCount) {
+        return mOrientation == HORIZONTAL ? Math.max(0, getPagesCount(itemCount) - 1) * mPageWidth : 0;
+    }
+
+    /**
+     * 最大允许滑动的高度
+     *
+     * @param itemCount 条目总数
+     * @return 最大滑动高度
+     */
+    public int getMaxScrollY(int itemCount) {
+        return mOrientation == HORIZONTAL ? 0 : Math.max(0, getPagesCount(itemCount) - 1) * mPageHeight;
+    }
+
+    /**************************************    条目    ********************************************/
+
+    /**
+     * 获取条目所在行
+     *
+     * @param pos 条目下标
+     * @return 行
+     */
+    public int getRow(int pos) {
+        if (null != mSpanIndex)
+            return mSpanIndex.getRow(pos);
+        return (pos % mOnePageSize) / mColumns;
+    }
+
+    /**
+     * 获取条目所在列
+     *
+     * @param pos 条目下标
+     * @return 列
+     */
+    public int getColumn(int pos) {
+        if (null != mSpanIndex)
+            return mSpanIndex.getColumn(pos);
+        return (pos % mOnePageSize) % mColumns;
+    }
+
+    /**
+     * 获取条目占用的行数
+     *
+     * @param pos 条目下标
+     * @return 行数
+     */
+    public int getRowSpan(int pos) {
+        return null == mSpanIndex ? 1 : mSpanIndex.getRowSpan(pos);
+    }
+
+    /**
+     * 获取条目占用的列数
+     *
+     * @param pos 条目下标
+     * @return 列数
+     */
+    public int getColumnSpan(int pos) {
+        return null == mSpanIndex ? 1 : mSpanIndex.getColumnSpan(pos);
+    }
+
+    /**
+     * 获取条目左边在整个滚动区域中的位置
+     *
+     * @param pos 条目下标
+     * @return 左边位置
+     */
+    public int getCellLeft(int pos) {
+        return getPageLeft(getPageIndexByPos(pos)) + getColumn(pos) * mItemWidth;
+    }
+
+    /**
+     * 获取条目顶部在整个滚动区域中的位置
+     *
+     * @param pos 条目下标
+     * @return 顶部位置
+     */
+    public int getCellTop(int pos) {
+        return getPageTop(getPageIndexByPos(pos)) + getRow(pos) * mItemHeight;
+    }
+
+    public int getCellRight(int pos) {
+        return getCellLeft(pos) + getColumnSpan(pos) * mItemWidth;
+    }
+
+    public int getCellBottom(int pos) {
+        return getCellTop(pos) + getRowSpan(pos) * mItemHeight;
+    }
+
+    /**************************************    焦点    ********************************************/
+
+    /**
+     * 获取相邻格子中的条目, 超出页面边界时沿分页方向进入相邻页面
+     * 不跨行跨列时为 O(1) 的算术运算, 跨行跨列时只查找目标页面中的条目
+     *
+     * @param pos        条目下标
+     * @param rowStep    行方向, -1 向上, 1 向下, 0 不变
+     * @param columnStep 列方向, -1 向左, 1 向右, 0 不变
+     * @param itemCount  条目总数
+     * @return 条目下标, 没有相邻条目时返回 -1
+     */
+    public int getNeighborPosition(int pos, int rowStep, int columnStep, int itemCount) {
+        if (pos < 0 || pos >= itemCount)
+            return -1;
+
+        int page = getPageIndexByPos(pos);
+        int row = getRow(pos);
+        int column = getColumn(pos);
+        if (rowStep != 0) {
+            row += rowStep < 0 ? -1 : getRowSpan(pos);
+        }
+        if (columnStep != 0) {
+            column += columnStep < 0 ? -1 : getColumnSpan(pos);
+        }
+
+        // 超出页面边界, 只有分页方向上有相邻页面
+        boolean isCrossPage = false;
+        if (column < 0 || column >= mColumns) {
+            if (mOrientation != HORIZONTAL)
+                return -1;
+            page += column < 0 ? -1 : 1;
+            column = column < 0 ? mColumns - 1 : 0;
+            isCrossPage = true;
+        } else if (row < 0 || row >= mRows) {
+            if (mOrientation == HORIZONTAL)
+                return -1;
+            page += row < 0 ? -1 : 1;
+            row = row < 0 ? mRows - 1 : 0;
+            isCrossPage = true;
+        }
+
+        final int pagesCount = getPagesCount(itemCount);
+        if (page < 0 || page >= pagesCount) {
+            if (!isWrapping(itemCount))
+                return -1;
+            page = floorMod(page, pagesCount);
+        }
+        return getPositionAtCell(page, row, column, itemCount, isCrossPage);
+    }
+
+    /**
+     * 获取覆盖格子的条目
+     *
+     * @param page      页码
+     * @param row       行
+     * @param column    列
+     * @param itemCount 条目总数
+     * @param isClamp   格子没有条目时, 是否返回页面中最近的条目
+     * @return 条目下标, 没有时返回 -1
+     */
+    private int getPositionAtCell(int page, int row, int column, int itemCount, boolean isClamp) {
+        final int start = getPageFirstPosition(page, itemCount);
+        final int stop = getPageEndPosition(page, itemCount);
+        if (start >= stop)
+            return -1;
+
+        if (null == mSpanIndex) {
+            final int pos = start + row * mColumns + column;
+            if (pos < stop)
+                return pos;
+            // 最后一页不满, 同一行还有条目时选择最后一个
+            final int last = stop - 1;
+            return isClamp || getRow(last) == row ? last : -1;
+        }
+
+        for (int pos = start; pos < stop; pos++) {
+            final int top = getRow(pos);
+            final int left = getColumn(pos);
+            if (row >= top && row < top + getRowSpan(pos) && column >= left && column < left + getColumnSpan(pos))
+                return pos;
+        }
+        return isClamp ? start : -1;
+    }
+
+    /**************************************    窗口    ********************************************/
+
+    /**
+     * 设置可见窗口前后额外保留的整页数量
+     *
+     * @param limit 页数, 0 表示只保留可见区域和前后一列或则一行
+     */
+    public void setOffscreenPageLimit(int limit) {
+        mOffscreenPageLimit = Math.max(0, limit);
+    }
+
+    public int getOffscreenPageLimit() {
+        return mOffscreenPageLimit;
+    }
+
+    /**
+     * 设置是否循环分页, 最后一页之后是第一页
+     * 循环时页码可以超出 [0, 页面总数), 通过 {@link #toRealPage(int)} 转换为实际页码
+     *
+     * @param circular 是否循环
+     */
+    public void setCircular(boolean circular) {
+        mCircular = circular;
+    }
+
+    public boolean isCircular() {
+        return mCircular;
+    }
+
+    /**
+     * 循环分页需要的最少页数, 同一页面不能同时出现在可见窗口的两个位置
+     * 窗口在分页方向上是一页, 前后各一列(或一行)和额外保留的整页, 没有对齐时还会多跨一页
+     * 分页方向上只有一列(或一行)时, 前后的一列就是一整页, 需要多一页
+     *
+     * @return 页数
+     */
+    public int getMinCircularPages() {
+        final int lines = mOrientation == HORIZONTAL ? mColumns : mRows;
+        return (lines == 1 ? 4 : 3) + 2 * mOffscreenPageLimit;
+    }
+
+    /**
+     * 当前是否循环, 设置了循环并且页数足够时循环
+     *
+     * @param itemCount 条目总数
+     * @return true 循环
+     */
+    public boolean isWrapping(int itemCount) {
+        return mCircular && getPagesCount(itemCount) >= getMinCircularPages();
+    }
+
+    /**
+     * 循环时将页码转换为实际页码
+     *
+     * @param page 页码
+     * @return 实际页码
+     */
+    public int toRealPage(int page) {
+        return mWrapPages <= 0 ? page : floorMod(page, mWrapPages);
+    }
+
+    /**
+     * 循环时条目在可见窗口中的位置相对于实际位置的偏移(页数)
+     *
+     * @param pos 条目下标
+     * @return 偏移的页数, 不循环时为 0
+     */
+    private int getWrapPages(int pos) {
+        if (mWrapPages <= 0)
+            return 0;
+        final int page = getPageIndexByPos(pos);
+        // 不小于窗口第一页的页码中, 与条目所在页面对应的第一个
+        return floorDiv(mWindowStartPage - page + mWrapPages - 1, mWrapPages) * mWrapPages;
+    }
+
+    /**
+     * 循环时条目在可见窗口中的 X 坐标相对于 {@link #getCellLeft(int)} 的偏移
+     *
+     * @param pos 条目下标
+     * @return 偏移量, 不循环时为 0
+     */
+    public int getWrapX(int pos) {
+        return mOrientation == HORIZONTAL ? getWrapPages(pos) * mPageWidth : 0;
+    }
+
+    public int getWrapY(int pos) {
+        return mOrientation == HORIZONTAL ? 0 : getWrapPages(pos) * mPageHeight;
+    }
+
+    private static int floorDiv(int x, int y) {
+        final int q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    private static int floorMod(int x, int y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /**
+     * 根据偏移量计算可见窗口, 前后多保留一列或则一行和额外保留的整页, 并限制在整个滚动区域内
+     *
+     * @param offsetX   X 轴偏移量
+     * @param offsetY   Y 轴偏移量
+     * @param itemCount 条目总数
+     */
+    public void computeWindow(int offsetX, int offsetY, int itemCount) {
+        final int extraX = mOrientation == HORIZONTAL ? mItemWidth + mOffscreenPageLimit * mPageWidth : mItemWidth;
+        final int extraY = mOrientation == HORIZONTAL ? mItemHeight : mItemHeight + mOffscreenPageLimit * mPageHeight;
+        int left = Math.max(0, offsetX - extraX);
+        int top = Math.max(0, offsetY - extraY);
+        int right = Math.min(getMaxScrollX(itemCount) + mPageWidth, offsetX + mPageWidth + extraX);
+        int bottom = Math.min(getMaxScrollY(itemCount) + mPageHeight, offsetY + mPageHeight + extraY);
+        // 循环时分页方向上没有边界
+        if (isWrapping(itemCount)) {
+            if (mOrientation == HORIZONTAL) {
+                left = offsetX - extraX;
+                right = offsetX + mPageWidth + extraX;
+            } else {
+                top = offsetY - extraY;
+                bottom = offsetY + mPageHeight + extraY;
+            }
+        }
+        setWindow(left, top, right, bottom, itemCount);
+    }
+
+    /**
+     * 可见窗口最多能同时包含的格子数量
+     * 滚动方向上窗口比页面多两个格子, 未对齐时最多与 columns + 3 列(或 rows + 3 行)相交, 另外加上额外保留的整页
+     *
+     * @return 格子数量
+     */
+    public int getWindowCellCount() {
+        final int line = mOrientation == HORIZONTAL ? mRows * (mColumns + 3) : mColumns * (mRows + 3);
+        return line + 2 * mOffscreenPageLimit * mOnePageSize;
+    }
+
+    /**
+     * 滚动方向上一列(水平分页)或一行(垂直分页)的格子数量
+     *
+     * @return 格子数量
+     */
+    public int getLineCellCount() {
+        return mOrientation == HORIZONTAL ? mRows : mColumns;
+    }
+
+    /**
+     * 设置可见窗口, 并计算与之相交的页面范围
+     *
+     * @param left      左边
+     * @param top       顶部
+     * @param right     右边
+     * @param bottom    底部
+     * @param itemCount 条目总数
+     */
+    public void setWindow(int left, int top, int right, int bottom, int itemCount) {
+        mWindowLeft = left;
+        mWindowTop = top;
+        mWindowRight = right;
+        mWindowBottom = bottom;
+
+        final int pageSize = getPageSize();
+        if (left >= right || top >= bottom || pageSize <= 0 || !isReady() || itemCount <= 0) {
+            mWindowStartPage = 0;
+            mWindowStopPage = -1;
+            mWrapPages = 0;
+            return;
+        }
+
+        final boolean horizontally = mOrientation == HORIZONTAL;
+        final int start = horizontally ? left : top;
+        final int stop = horizontally ? right : bottom;
+        if (isWrapping(itemCount)) {
+            mWrapPages = getPagesCount(itemCount);
+            mWindowStartPage = floorDiv(start, pageSize);
+            mWindowStopPage = floorDiv(stop - 1, pageSize);
+        } else {
+            mWrapPages = 0;
+            mWindowStartPage = Math.max(0, start / pageSize);
+            mWindowStopPage = Math.min(getPagesCount(itemCount) - 1, (stop - 1) / pageSize);
+        }
+    }
+
+    /**
+     * 与可见窗口相交的第一页, 循环时可能超出 [0, 页面总数)
+     *
+     * @return 页码
+     */
+    public int getWindowStartPage() {
+        return mWindowStartPage;
+    }
+
+    public int getWindowStopPage() {
+        return mWindowStopPage;
+    }
+
+    /**
+     * 可见窗口中的第一列(相对于页面)
+     *
+     * @param page 页码
+     * @return 列, 大于 {@link #getWindowColumnStop(int)} 时表示没有可见列
+     */
+    public int getWindowColumnStart(int page) {
+        return Math.max(0, (mWindowLeft - getPageLeft(page)) / mItemWidth);
+    }
+
+    public int getWindowColumnStop(int page) {
+        final int right = mWindowRight - getPageLeft(page);
+        return right <= 0 ? -1 : Math.min(mColumns - 1, (right - 1) / mItemWidth);
+    }
+
+    /**
+     * 可见窗口中的第一行(相对于页面)
+     *
+     * @param page 页码
+     * @return 行, 大于 {@link #getWindowRowStop(int)} 时表示没有可见行
+     */
+    public int getWindowRowStart(int page) {
+        return Math.max(0, (mWindowTop - getPageTop(page)) / mItemHeight);
+    }
+
+    public int getWindowRowStop(int page) {
+        final int bottom = mWindowBottom - getPageTop(page);
+        return bottom <= 0 ? -1 : Math.min(mRows - 1, (bottom - 1) / mItemHeight);
+    }
+
+    /**
+     * 可见窗口中的第一个条目
+     *
+     * @param itemCount 条目总数
+     * @return 条目下标, 没有可见条目时返回 -1
+     */
+    public int getWindowFirstPosition(int itemCount) {
+        if (mWindowStopPage < mWindowStartPage)
+            return -1;
+        final int page = mWindowStartPage;
+        final int realPage = toRealPage(page);
+        if (null != mSpanIndex) {
+            final int end = getPageEndPosition(realPage, itemCount);
+            for (int pos = getPageFirstPosition(realPage, itemCount); pos < end; pos++) {
+                if (isInWindow(pos))
+                    return pos;
+            }
+            return -1;
+        }
+        return getPageFirstPosition(realPage, itemCount) + getWindowRowStart(page) * mColumns + getWindowColumnStart(page);
+    }
+
+    /**
+     * 可见窗口中的最后一个条目
+     *
+     * @param itemCount 条目总数
+     * @return 条目下标, 没有可见条目时返回 -1
+     */
+    public int getWindowLastPosition(int itemCount) {
+        if (mWindowStopPage < mWindowStartPage)
+            return -1;
+        final int page = mWindowStopPage;
+        final int realPage = toRealPage(page);
+        if (null != mSpanIndex) {
+            final int start = getPageFirstPosition(realPage, itemCount);
+            for (int pos = getPageEndPosition(realPage, itemCount) - 1; pos >= start; pos--) {
+                if (isInWindow(pos))
+                    return pos;
+            }
+            return -1;
+        }
+        final int last = getPageFirstPosition(realPage, itemCount) + getWindowRowStop(page) * mColumns + getWindowColumnStop(page);
+        return Math.min(itemCount - 1, last);
+    }
+
+    /**
+     * 条目是否与可见窗口相交
+     *
+     * @param pos 条目下标
+     * @return true 相交
+     */
+    public boolean isInWindow(int pos) {
+        final int left = getCellLeft(pos) + getWrapX(pos);
+        final int top = getCellTop(pos) + getWrapY(pos);
+        return left < mWindowRight && left + getColumnSpan(pos) * mItemWidth > mWindowLeft
+                && top < mWindowBottom && top + getRowSpan(pos) * mItemHeight > mWindowTop;
+    }
+
+    /**
+     * 条目在分页方向上是否与 [start, stop) 相交, 循环时按照条目在可见窗口中的位置计算
+     *
+     * @param pos   条目下标
+     * @param start 起点
+     * @param stop  终点
+     * @return true 相交
+     */
+    public boolean isInRange(int pos, int start, int stop) {
+        final int cellStart;
+        final int cellStop;
+        if (mOrientation == HORIZONTAL) {
+            cellStart = getCellLeft(pos) + getWrapX(pos);
+            cellStop = cellStart + getColumnSpan(pos) * mItemWidth;
+        } else {
+            cellStart = getCellTop(pos) + getWrapY(pos);
+            cellStop = cellStart + getRowSpan(pos) * mItemHeight;
+        }
+        return cellStart < stop && cellStop > start;
+    }
+
+    /**
+     * 可见窗口在分页方向上的起点
+     *
+     * @return 水平分页时为左边, 垂直分页时为顶部
+     */
+    public int getWindowStart() {
+        return mOrientation == HORIZONTAL ? mWindowLeft : mWindowTop;
+    }
+
+    public int getWindowStop() {
+        return mOrientation == HORIZONTAL ? mWindowRight : mWindowBottom;
+    }
+
+    /**
+     * 只修改分页方向上的窗口范围, 另一个方向不变
+     *
+     * @param start     起点
+     * @param stop      终点
+     * @param itemCount 条目总数
+     */
+    public void setWindowRange(int start, int stop, int itemCount) {
+        if (mOrientation == HORIZONTAL) {
+            setWindow(start, mWindowTop, stop, mWindowBottom, itemCount);
+        } else {
+            setWindow(mWindowLeft, start, mWindowRight, stop, itemCount);
+        }
+    }
+
+    /**************************************    填充    ********************************************/
+
+    /**
+     * 开始遍历某一页中与可见窗口相交的条目, 之后用 {@link #nextFillPosition()} 逐个取出
+     * 直接根据页面左上角和条目宽高计算出相交的行列范围, 不会遍历可见窗口之外的条目
+     * PagerGridLayoutManager 的填充和 JVM 上的压测使用同一个遍历
+     *
+     * @param page      页码, 循环时可能超出 [0, 页面总数)
+     * @param itemCount 条目总数
+     */
+    public void startFill(int page, int itemCount) {
+        final int realPage = toRealPage(page);
+        mFillItemCount = itemCount;
+        mFillPageStart = getPageFirstPosition(realPage, itemCount);
+        // 跨行跨列时格子位置不连续, 按照页面中的条目逐个判断是否与可见窗口相交
+        if (null != mSpanIndex) {
+            mFillPosition = mFillPageStart;
+            mFillEnd = getPageEndPosition(realPage, itemCount);
+            return;
+        }
+        mFillRow = getWindowRowStart(page);
+        mFillRowStop = getWindowRowStop(page);
+        mFillColumnStart = getWindowColumnStart(page);
+        mFillColumnStop = getWindowColumnStop(page);
+        mFillColumn = mFillColumnStart;
+    }
+
+    /**
+     * 下一个与可见窗口相交的条目, 按行从左到右
+     *
+     * @return 条目下标, 遍历结束时返回 -1
+     */
+    public int nextFillPosition() {
+        if (null != mSpanIndex) {
+            while (mFillPosition < mFillEnd) {
+                final int position = mFillPosition++;
+                if (isInWindow(position))
+                    return position;
+            }
+            return -1;
+        }
+        if (mFillColumn > mFillColumnStop) {
+            mFillColumn = mFillColumnStart;
+            mFillRow++;
+        }
+        if (mFillRow > mFillRowStop || mFillColumnStart > mFillColumnStop)
+            return -1;
+        final int position = mFillPageStart + mFillRow * mColumns + mFillColumn++;
+        // 最后一页数据不足一页
+        if (position >= mFillItemCount) {
+            mFillRow = mFillRowStop + 1;
+            return -1;
+        }
+        return position;
+    }
+}
@@ -1,17 +1,25 @@
 package lib.kalu.pagermanager;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.PointF;
 import android.graphics.Rect;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.IntRange;
-import android.support.v7.widget.LinearSmoothScroller;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.RecyclerView;
-import android.util.Log;
+import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
-import android.widget.LinearLayout;
+import android.view.animation.Interpolator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static android.support.v7.widget.RecyclerView.SCROLL_STATE_DRAGGING;
 import static android.support.v7.widget.RecyclerView.SCROLL_STATE_IDLE;
 import static android.view.View.MeasureSpec.EXACTLY;
 
@@ -22,33 +30,42 @@ import static android.view.View.MeasureSpec.EXACTLY;
  */
 public final class PagerGridLayoutManager extends RecyclerView.LayoutManager implements RecyclerView.SmoothScroller.ScrollVectorProvider {
 
-    private int mOrientation;                       // 默认水平滚动
-
-    private int mRows;                              // 行数
-    private int mColumns;                           // 列数
-    private int mOnePageSize;                       // 一页的条目数量
+    private final PagerGridGeometry mGeometry;      // 行数, 列数, 分页方向和页面大小
 
     private int mScrollState = SCROLL_STATE_IDLE;   // 滚动状态
 
     private int mPagesCount = -1;                    // 上次页面总数
     private int mPagesIndex = -1;                    // 上次页面下标
 
-    // 条目宽度, 条目高度
-    private int mItemWidth = 0, mItemHeight = 0;
     // 最大允许滑动的宽度(条目总宽度), 最大允许滑动的高度(条目总高度)
     private int mMaxScrollX = 0, mMaxScrollY = 0;
     // 水平滚动距离(偏移量), 垂直滚动距离(偏移量)
     private int mOffsetX = 0, mOffsetY = 0;
-    // 已经使用空间，用于测量View, 已经使用空间，用于测量View
-    private int mWidthUsed = 0, mHeightUsed = 0;
+    // 数据变化影响到的第一个条目, 之前的条目(页, 行, 列)不变, 不需要重新布局, Integer.MAX_VALUE 表示没有变化
+    private int mFirstDirtyPosition = 0;
+    // 条目的(页, 行, 列)不变但位置发生变化(切换滚动方向), 已经添加的条目需要重新布局到新的位置
+    private boolean mRelayoutAttached = false;
+    // 重新分页后需要保持可见的条目, RecyclerView.NO_POSITION 表示没有
+    private int mPendingAnchorPosition = RecyclerView.NO_POSITION;
+    // 上一次填充后窗口在分页方向上的范围, 其中的条目都已经添加, 滚动时只填充新进入窗口的部分, 等待重新布局时无效
+    private boolean mFilledValid = false;
+    private int mFilledStart = 0, mFilledStop = 0;
+    private boolean mFillingStrip = false;          // 是否正在填充新进入窗口的部分
+    // 填充整个窗口时已经添加的条目(升序), 二分查找, 不用逐个遍历子 View
+    private int[] mAttachedPositions = new int[16];
+    private int mAttachedCount = 0;
+
+    // 复用对象, 避免滚动和对齐过程中频繁创建对象
+    private final int[] mSnapOffset = new int[2];   // 对齐偏移量
+    private final PointF mScrollVector = new PointF(); // 滚动向量
+    private final Rect mDecorInsets = new Rect();   // 分割线占用的空间
+
+    private RecyclerView mRecyclerView = null;      // 所在的 RecyclerView, 用于执行翻页动画
 
     /**********************************************************************************************/
 
     public PagerGridLayoutManager(@IntRange(from = 1, to = Integer.MAX_VALUE) int rows, @IntRange(from = 1, to = Integer.MAX_VALUE) int columns, @IntRange(from = 0, to = 1) int orientation) {
-        mOrientation = orientation;
-        mRows = rows;
-        mColumns = columns;
-        mOnePageSize = mRows * mColumns;
+        mGeometry = new PagerGridGeometry(rows, columns, orientation);
     }
 
     /**********************************************************************************************/
@@ -56,67 +73,246 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
     @Override
     public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
 
+        final PagerGridTracer tracer = mTracer;
+        if (null != tracer) {
+            tracer.beginSection(PagerGridTracer.SECTION_LAYOUT);
+        }
+        beginMetrics(state.isPreLayout() ? PagerGridMetrics.PASS_PRE_LAYOUT : PagerGridMetrics.PASS_LAYOUT);
+        try {
+            layoutChildren(recycler, state);
+        } finally {
+            if (null != tracer) {
+                tracer.endSection();
+            }
+        }
+        endMetrics();
+    }
+
+    private final void layoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+
         final int itemCount = state.getItemCount();
         if (itemCount == 0) {
+            if (null != mMetrics) {
+                mMetrics.mRecycledCount += getChildCount();
+            }
             detachAndScrapAttachedViews(recycler);
             removeAndRecycleAllViews(recycler);
             recycler.clear();
+            mFirstDirtyPosition = 0;
             return;
         }
 
+        // 页面大小只在布局时读取, 滚动时直接使用缓存的几何数据
+        if (mGeometry.setPageSize(getRealWidth(), getRealHeight())) {
+            markDirty(0);
+            clearPageSnapshots();
+        }
+
         final boolean isPreLayout = state.isPreLayout();
-        final boolean isMeasuring = state.isMeasuring();
         final boolean isDidStructureChange = state.didStructureChange();
 
-        // 如果是 preLayout 则不重新布局
-        if (isPreLayout || !isDidStructureChange)
+        // 预布局, 按照数据变化之前的位置布局, 用于执行条目动画
+        if (isPreLayout) {
+            mPreLayoutRecycler = recycler;
+            mGeometry.setPreLayoutSpanSizeLookup(mPreLayoutSpanSizeLookup);
+            preLayoutChildren(recycler, state);
+            mGeometry.setPreLayoutSpanSizeLookup(null);
+            mPreLayoutRecycler = null;
             return;
+        }
+
+        // 恢复保存的状态, 直接定位到目标页面, 不需要先布局第一页
+        if (null != mPendingSavedState) {
+            restoreSavedState(mPendingSavedState);
+            mPendingSavedState = null;
+        }
+
+        // 重新分页后定位到锚点条目所在的页面
+        if (mPendingAnchorPosition != RecyclerView.NO_POSITION) {
+            final int page = mGeometry.getPageIndexByPos(Math.min(mPendingAnchorPosition, itemCount - 1));
+            mOffsetX = mGeometry.getPageLeft(page);
+            mOffsetY = mGeometry.getPageTop(page);
+            mPendingAnchorPosition = RecyclerView.NO_POSITION;
+        }
 
         final int pagesCount = getPagesCount();
         final int pagesIndex = getPagesIndex();
-        Log.e("kalu", "onLayoutChildren ==> itemCount = " + itemCount + ", pagesCount = " + pagesCount + ", pagesIndex = " + pagesIndex + ", isPreLayout = " + isPreLayout + ", isMeasuring = " + isMeasuring + ", isDidStructureChange = " + isDidStructureChange);
+        if (null != mTracer) {
+            mTracer.onLayoutPass(itemCount, pagesCount, pagesIndex, isPreLayout, isDidStructureChange);
+        }
 
-        setPageCount(pagesCount);
+        setPageCount(Math.max(pagesCount, getPlaceholderPagesCount()));
         setPageIndex(pagesIndex, false);
 
-        // step1: 计算可以滚动的最大数值，并对滚动距离进行修正
-        final boolean horizontally = canScrollHorizontally();
-        if (horizontally) {
-            mMaxScrollX = (pagesCount - 1) * getRealWidth();
-            mMaxScrollY = 0;
+        // step1: 计算可以滚动的最大数值，并对滚动距离进行修正, 修正后所有条目的位置都发生了变化
+        // 循环时没有最大值, 偏移量限制在一圈之内, 条目在窗口中的位置不变
+        mMaxScrollX = mGeometry.getMaxScrollX(itemCount);
+        mMaxScrollY = mGeometry.getMaxScrollY(itemCount);
+        if (mGeometry.isWrapping(itemCount)) {
+            wrapOffset();
+        } else {
             if (mOffsetX > mMaxScrollX) {
                 mOffsetX = mMaxScrollX;
+                markDirty(0);
             }
-        } else {
-            mMaxScrollX = 0;
-            mMaxScrollY = (pagesCount - 1) * getRealHeight();
             if (mOffsetY > mMaxScrollY) {
                 mOffsetY = mMaxScrollY;
+                markDirty(0);
             }
         }
-        if (mItemWidth <= 0) {
-            mItemWidth = getRealWidth() / mColumns;
+
+        // step2: 只移除(页, 行, 列)发生变化或者数据发生变化的条目, 其余条目保持绑定和位置不变
+        final int firstDirtyPosition = mFirstDirtyPosition;
+        mFirstDirtyPosition = Integer.MAX_VALUE;
+        final boolean relayoutAttached = mRelayoutAttached;
+        mRelayoutAttached = false;
+        mGeometry.computeWindow(mOffsetX, mOffsetY, itemCount);
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+            final int position = getPosition(child);
+            if (lp.isItemRemoved() || lp.isItemChanged() || lp.viewNeedsUpdate() || position >= firstDirtyPosition) {
+                // 数据变化的条目取回时会重新绑定; 只是移动了位置的条目不会重新绑定, 按照新的位置记录
+                final boolean isChanged = lp.isItemChanged() || lp.viewNeedsUpdate() || lp.isViewInvalid();
+                lp.mLastPosition = isChanged ? LayoutParams.POSITION_CHANGED : position;
+                detachAndScrapView(child, recycler);
+            } else if ((relayoutAttached || child.isLayoutRequested()) && mGeometry.isInWindow(position)) {
+                // 切换滚动方向后格子大小不变, 只移动位置; 条目自己请求了布局(例如内容变化)时重新测量和布局
+                layoutItem(child, position);
+            }
+        }
+
+        // step3: 回收和填充布局, 使用 step2 计算的窗口
+        recycleAndFillItems(recycler, itemCount, true, false);
+
+        // step4: 移出显示区域的条目, 布局到新的位置上执行移出动画
+        if (state.willRunPredictiveAnimations()) {
+            layoutDisappearingViews(recycler);
         }
-        if (mItemHeight <= 0) {
-            mItemHeight = getRealHeight() / mRows;
+
+        // step5: 按照每种类型在可见窗口中出现的数量设置回收池容量
+        countViewTypes();
+
+        // step6: 检查即将需要的页面是否已经加载
+        checkPageDemand();
+    }
+
+    /**
+     * 预布局, 按照数据变化之前的位置布局显示区域内的条目
+     * 有条目被移除时, 额外布局相同数量的后续条目, 这些条目会在正式布局时移入显示区域
+     *
+     * @param recycler Recycler
+     * @param state    State
+     */
+    private final void preLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+
+        int removedCount = 0;
+        for (int i = 0; i < getChildCount(); i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+            if (lp.isItemRemoved()) {
+                removedCount++;
+            }
+            // 预布局从暂存区取回的条目不会重新绑定(包括数据变化的条目), 按照预布局的位置记录
+            lp.mLastPosition = getPosition(child);
         }
-        Log.e("kalu", "onLayoutChildren ==> mItemWidth = " + mItemWidth + ", mItemHeight = " + mItemHeight);
 
-        mWidthUsed = getRealWidth() - mItemWidth;
-        mHeightUsed = getRealHeight() - mItemHeight;
+        final int itemCount = state.getItemCount();
+        detachAndScrapAttachedViews(recycler);
+        mGeometry.computeWindow(mOffsetX, mOffsetY, itemCount);
+        fillWindow(recycler, itemCount, true);
+
+        final int lastPosition = mGeometry.getWindowLastPosition(itemCount);
+        if (lastPosition < 0)
+            return;
+        for (int i = 1; i <= removedCount && lastPosition + i < itemCount; i++) {
+            fillItem(recycler, lastPosition + i);
+        }
+    }
 
-        if (mOffsetX == 0 && mOffsetY == 0) {
-            // 预存储View
-            for (int i = 0; i < mOnePageSize; i++) {
-                if (i >= getItemCount()) break; // 防止数据过少时导致数组越界异常
-                View view = recycler.getViewForPosition(i);
-                addView(view);
-                measureChildWithMargins(view, mWidthUsed, mHeightUsed);
+    /**
+     * 正式布局后仍然留在暂存区的条目(位置移出了显示区域), 布局到新的位置上, 由 ItemAnimator 执行移出动画
+     *
+     * @param recycler Recycler
+     */
+    private final void layoutDisappearingViews(RecyclerView.Recycler recycler) {
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = 0; i < scrapList.size(); ) {
+            final RecyclerView.ViewHolder holder = scrapList.get(i);
+            final View child = holder.itemView;
+            final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+            if (lp.isItemRemoved()) {
+                i++;
+                continue;
             }
+            // addDisappearingView 会将条目移出暂存区
+            addDisappearingView(child);
+            layoutItem(child, lp.getViewLayoutPosition());
+        }
+    }
+
+    /**
+     * 标记数据变化影响到的第一个条目
+     *
+     * @param position 条目下标
+     */
+    private final void markDirty(int position) {
+        if (position < mFirstDirtyPosition) {
+            mFirstDirtyPosition = position;
         }
+        mFilledValid = false;
+    }
+
+    @Override
+    public void requestLayout() {
+        // 等待重新布局时条目位置可能变化, 在此之前的滚动仍然检查整个窗口
+        mFilledValid = false;
+        super.requestLayout();
+    }
+
+    @Override
+    public boolean supportsPredictiveItemAnimations() {
+        return true;
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearPageSnapshots();
+        mGeometry.invalidateSpans(positionStart);
+        markDirty(positionStart);
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearPageSnapshots();
+        resetPageDemand();
+        mGeometry.invalidateSpans(positionStart);
+        markDirty(positionStart);
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        clearPageSnapshots();
+        mGeometry.invalidateSpans(Math.min(from, to));
+        markDirty(Math.min(from, to));
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearPageSnapshots();
+        // 条目内容变化可能改变占用的行数和列数
+        if (!mGeometry.hasSpans())
+            return;
+        mGeometry.invalidateSpans(positionStart);
+        markDirty(positionStart);
+    }
 
-        // 回收和填充布局
-        recycleAndFillItems(recycler, state, true);
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        clearPageSnapshots();
+        resetPageDemand();
+        mGeometry.invalidateSpans(0);
+        markDirty(0);
     }
 
     /**********************************************************************************************/
@@ -128,7 +324,7 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
      * @return 页面的页码
      */
     private int getPageIndexByPos(int pos) {
-        return pos / mOnePageSize;
+        return mGeometry.getPageIndexByPos(pos);
     }
 
     /**
@@ -138,7 +334,26 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
      */
     @Override
     public RecyclerView.LayoutParams generateDefaultLayoutParams() {
-        return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        return new LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(Context c, AttributeSet attrs) {
+        return new LayoutParams(c, attrs);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(ViewGroup.LayoutParams lp) {
+        if (lp instanceof ViewGroup.MarginLayoutParams) {
+            return new LayoutParams((ViewGroup.MarginLayoutParams) lp);
+        } else {
+            return new LayoutParams(lp);
+        }
+    }
+
+    @Override
+    public boolean checkLayoutParams(RecyclerView.LayoutParams lp) {
+        return lp instanceof LayoutParams;
     }
 
     @Override
@@ -187,32 +402,25 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
      * {@link PagerGridSnapHelper}
      *
      * @param targetPosition 条目下标
+     * @return 需要滚动的距离, 返回的数组会被复用, 调用方需要立即读取
      */
     int[] getSnapOffset(int targetPosition) {
-        int[] offset = new int[2];
-        int[] pos = getPageLeftTopByPosition(targetPosition);
-        offset[0] = pos[0] - mOffsetX;
-        offset[1] = pos[1] - mOffsetY;
-        return offset;
+        getPageLeftTopByPosition(targetPosition, mSnapOffset);
+        mSnapOffset[0] = wrapDistance(mSnapOffset[0] - mOffsetX);
+        mSnapOffset[1] = wrapDistance(mSnapOffset[1] - mOffsetY);
+        return mSnapOffset;
     }
 
     /**
      * 根据条目下标获取该条目所在页面的左上角位置
      *
-     * @param pos 条目下标
-     * @return 左上角位置
+     * @param pos     条目下标
+     * @param leftTop 输出左上角位置
      */
-    private int[] getPageLeftTopByPosition(int pos) {
-        int[] leftTop = new int[2];
+    private void getPageLeftTopByPosition(int pos, int[] leftTop) {
         int page = getPageIndexByPos(pos);
-        if (canScrollHorizontally()) {
-            leftTop[0] = page * getRealWidth();
-            leftTop[1] = 0;
-        } else {
-            leftTop[0] = 0;
-            leftTop[1] = page * getRealHeight();
-        }
-        return leftTop;
+        leftTop[0] = mGeometry.getPageLeft(page);
+        leftTop[1] = mGeometry.getPageTop(page);
     }
 
     /**
@@ -227,14 +435,9 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
         if (getChildCount() <= 0) {
             return null;
         }
-        int targetPos = getPagesIndex() * mOnePageSize;   // 目标Pos
-        for (int i = 0; i < getChildCount(); i++) {
-            int childPos = getPosition(getChildAt(i));
-            if (childPos == targetPos) {
-                return getChildAt(i);
-            }
-        }
-        return getChildAt(0);
+        final int targetPos = mGeometry.getPageFirstPosition(getPagesIndex(), getItemCount());   // 目标Pos
+        final View child = findViewByPosition(targetPos);
+        return null != child ? child : getChildAt(0);
     }
 
     /**
@@ -244,17 +447,34 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
      * @return 最终的滚动方向
      */
     public int setOrientationType(@IntRange(from = 0, to = 1) int orientation) {
-        if (mOrientation == orientation || mScrollState != SCROLL_STATE_IDLE) return mOrientation;
-        mOrientation = orientation;
-        int x = mOffsetX;
-        int y = mOffsetY;
-        mOffsetX = y / getRealHeight() * getRealWidth();
-        mOffsetY = x / getRealWidth() * getRealHeight();
-        int mx = mMaxScrollX;
-        int my = mMaxScrollY;
-        mMaxScrollX = my / getRealHeight() * getRealWidth();
-        mMaxScrollY = mx / getRealWidth() * getRealHeight();
-        return mOrientation;
+        return setOrientationType(orientation, false);
+    }
+
+    /**
+     * 设置滚动方向, 保持当前页面不变
+     * 页面中条目的(页, 行, 列)不变, 已经添加的条目直接移动到新的位置, 不重新绑定和测量
+     *
+     * @param orientation 滚动方向
+     * @param animate     是否由 ItemAnimator 执行移动动画
+     * @return 最终的滚动方向
+     */
+    public int setOrientationType(@IntRange(from = 0, to = 1) int orientation, boolean animate) {
+        if (mGeometry.getOrientation() == orientation || mScrollState != SCROLL_STATE_IDLE)
+            return mGeometry.getOrientation();
+        final int page = getPagesIndex();
+        mGeometry.setOrientation(orientation);
+        resizeViewPool();
+        clearPageSnapshots();
+        mOffsetX = mGeometry.getPageLeft(page);
+        mOffsetY = mGeometry.getPageTop(page);
+        mMaxScrollX = mGeometry.getMaxScrollX(getItemCount());
+        mMaxScrollY = mGeometry.getMaxScrollY(getItemCount());
+        mRelayoutAttached = true;
+        if (animate) {
+            requestSimpleAnimationsInNextLayout();
+        }
+        requestLayout();
+        return orientation;
     }
 
     /*********************************************************************************************/
@@ -268,66 +488,134 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
     }
 
     private final void setPageCount(@IntRange(from = 1, to = Integer.MAX_VALUE) int pageCount) {
-
-        Log.e("kalu", "setPageCount = pageCount = " + pageCount);
+        if (pageCount == mPagesCount)
+            return;
         mPagesCount = pageCount;
-        if (mPageListener != null && pageCount != mPagesCount) {
-            mPageListener.onChange(mPagesCount, mPagesIndex);
-        }
+        postPageEvent(PAGE_EVENT_COUNT);
     }
 
     private final void setPageIndex(@IntRange(from = 0, to = Integer.MAX_VALUE) int pageIndex, boolean isScrolling) {
-        if (pageIndex <= 0 || pageIndex == mPagesIndex)
+        if (pageIndex < 0 || pageIndex == mPagesIndex)
             return;
 
-        Log.e("kalu", "setPageIndex = pageIndex = " + pageIndex + ", isScrolling = " + isScrolling);
         mPagesIndex = pageIndex;
-        if (null != mPageListener) {
-            mPageListener.onChange(mPagesCount, mPagesIndex);
+        if (null != mTracer) {
+            mTracer.onPageChange(mPagesCount, mPagesIndex, isScrolling);
         }
+        postPageEvent(PAGE_EVENT_SELECTED);
+        checkPageDemand();
     }
 
-    private final void addOrRemove(RecyclerView.Recycler recycler, Rect displayRect, int position) {
+    /**
+     * 填充条目(只处理与显示区域相交的条目)
+     *
+     * @param recycler Recycler
+     * @param position 条目下标
+     */
+    private final void fillItem(RecyclerView.Recycler recycler, int position) {
+
+        // 已经添加的条目, 在滚动时已经完成了偏移, 不需要重新添加
+        if (isAttached(position))
+            return;
 
         final View child = recycler.getViewForPosition(position);
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        if (null == lp.mViewType) {
+            lp.mViewType = obtainViewType(getItemViewType(child));
+        }
+        final PagerGridViewType viewType = lp.mViewType;
+        final boolean isCreated = lp.mLastPosition == RecyclerView.NO_POSITION;
+        final boolean isRebound = !isCreated && lp.mLastPosition != position;
+        if (isCreated) {
+            viewType.mCreatedCount++;
+        } else if (isRebound) {
+            viewType.mBoundCount++;
+        }
+        if (null != mMetrics) {
+            mMetrics.mFetchedCount++;
+            if (isCreated) {
+                mMetrics.mCreatedCount++;
+            } else if (isRebound) {
+                mMetrics.mReboundCount++;
+            }
+        }
+        lp.mLastPosition = position;
+        ensureViewPoolSize(viewType);
+        addView(child);
+        layoutItem(child, position);
+    }
 
-        final Rect rect = new Rect();
-        // 1. 获取当前View所在页数
-        final int pages = position / mOnePageSize;
-        // 2. 计算当前页数左上角的总偏移量
-        final boolean horizontally = canScrollHorizontally();
-        int offsetX = horizontally ? getRealWidth() * pages : 0;
-        int offsetY = horizontally ? 0 : getRealHeight() * pages;
-
-        // 3. 根据在当前页面中的位置确定具体偏移量
-        int pagePos = position % mOnePageSize;       // 在当前页面中是第几个
-        int row = pagePos / mColumns;           // 获取所在行
-        int col = pagePos - (row * mColumns);   // 获取所在列
-
-        offsetX += col * mItemWidth;
-        offsetY += row * mItemHeight;
-        // 状态输出，用于调试
-        Log.e("kalu", "addOrRemove ==> pagePos = " + pagePos + ", row = " + row + ", col = " + col + ", offsetX = " + offsetX + ", offsetY = " + offsetY);
-        rect.left = offsetX;
-        rect.top = offsetY;
-        rect.right = offsetX + mItemWidth;
-        rect.bottom = offsetY + mItemHeight;
-
-        // 两个矩形是否相交
-        if (!Rect.intersects(displayRect, rect)) {
-            // 回收入暂存区
-            removeAndRecycleView(child, recycler);
-        } else {
-            addView(child);
-            measureChildWithMargins(child, mWidthUsed, mHeightUsed);
-            final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
-            final int paddingLeft = getPaddingLeft();
-            final int paddingTop = getPaddingTop();
-            final int left = rect.left - mOffsetX + lp.leftMargin + paddingLeft;
-            final int top = rect.top - mOffsetY + lp.topMargin + paddingTop;
-            final int right = rect.right - mOffsetX - lp.rightMargin + paddingLeft;
-            final int bottom = rect.bottom - mOffsetY - lp.bottomMargin + paddingTop;
-            layoutDecorated(child, left, top, right, bottom);
+    /**
+     * 测量并布局条目
+     *
+     * @param child    条目
+     * @param position 条目下标
+     */
+    private final void layoutItem(View child, int position) {
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        // 格子大小, 跨行跨列的条目占用多个格子
+        final int cellWidth = mGeometry.getCellRight(position) - mGeometry.getCellLeft(position);
+        final int cellHeight = mGeometry.getCellBottom(position) - mGeometry.getCellTop(position);
+        final int cellWidthUsed = mGeometry.getPageWidth() - cellWidth;
+        final int cellHeightUsed = mGeometry.getPageHeight() - cellHeight;
+        // 已经按照当前格子大小(包括分割线)测量过, 并且没有请求重新布局的条目不再测量
+        // 大小固定的条目请求重新布局时, 按照上次测量的大小精确测量, 内容重新布局但不用重新计算大小
+        calculateItemDecorationsForChild(child, mDecorInsets);
+        final int widthUsed = cellWidthUsed + mDecorInsets.left + mDecorInsets.right;
+        final int heightUsed = cellHeightUsed + mDecorInsets.top + mDecorInsets.bottom;
+        final boolean isSameCell = lp.mMeasuredWidthUsed == widthUsed && lp.mMeasuredHeightUsed == heightUsed;
+        final boolean hasFixedSize = null == lp.mViewType ? mHasFixedItemSize : lp.mViewType.hasFixedSize(mHasFixedItemSize);
+        if (!isSameCell || (!hasFixedSize && child.isLayoutRequested())) {
+            measureChildWithMargins(child, cellWidthUsed, cellHeightUsed);
+            if (null != lp.mViewType) {
+                lp.mViewType.mMeasureCount++;
+            }
+            if (null != mMetrics) {
+                mMetrics.mMeasureCount++;
+            }
+            lp.mMeasuredWidthUsed = widthUsed;
+            lp.mMeasuredHeightUsed = heightUsed;
+        } else if (child.isLayoutRequested()) {
+            child.measure(View.MeasureSpec.makeMeasureSpec(child.getMeasuredWidth(), EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(child.getMeasuredHeight(), EXACTLY));
+            if (null != lp.mViewType) {
+                lp.mViewType.mMeasureCount++;
+            }
+            if (null != mMetrics) {
+                mMetrics.mMeasureCount++;
+            }
+        }
+        final int paddingLeft = getPaddingLeft();
+        final int paddingTop = getPaddingTop();
+        final int cellLeft = mGeometry.getCellLeft(position) + mGeometry.getWrapX(position) - mOffsetX + paddingLeft;
+        final int cellTop = mGeometry.getCellTop(position) + mGeometry.getWrapY(position) - mOffsetY + paddingTop;
+        final int left = cellLeft + lp.leftMargin;
+        final int top = cellTop + lp.topMargin;
+        final int right = cellLeft + cellWidth - lp.rightMargin;
+        final int bottom = cellTop + cellHeight - lp.bottomMargin;
+        layoutDecorated(child, left, top, right, bottom);
+    }
+
+    /**
+     * 填充某一页中与显示区域相交的条目, 遍历见 {@link PagerGridGeometry#startFill(int, int)}
+     *
+     * @param recycler  Recycler
+     * @param page      页码, 循环时可能超出 [0, 页面总数)
+     * @param itemCount 条目总数
+     */
+    private final void fillPage(RecyclerView.Recycler recycler, int page, int itemCount) {
+
+        final PagerGridGeometry geometry = mGeometry;
+
+        // 快速滑动经过的页面绘制快照, 不获取条目
+        if (isSnapshotPage(geometry.toRealPage(page))) {
+            mSnapshotSkipped = true;
+            return;
+        }
+
+        geometry.startFill(page, itemCount);
+        for (int position = geometry.nextFillPosition(); position >= 0; position = geometry.nextFillPosition()) {
+            fillItem(recycler, position);
         }
     }
 
@@ -335,10 +623,9 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
         int page = mPagesIndex;
         page++;
         if (page >= getPagesCount()) {
-            page = getPagesCount() - 1;
+            page = isWrapping() ? 0 : getPagesCount() - 1;
         }
-        Log.e("kalu", "findNextPageFirstPos ==> page = " + page);
-        return page * mOnePageSize;
+        return mGeometry.getPageFirstPosition(page, getItemCount());
     }
 
     /**
@@ -351,131 +638,262 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
         int page = mPagesIndex;
         page--;
         if (page < 0) {
-            page = 0;
+            page = isWrapping() ? getPagesCount() - 1 : 0;
         }
-        Log.e("kalu", "computeScrollVectorForPosition pre = " + page);
-        return page * mOnePageSize;
+        return mGeometry.getPageFirstPosition(page, getItemCount());
     }
 
-    private final int getPagesCount() {
+    /**
+     * 根据快速滑动的预测距离找到目标页面的第一个条目
+     * 至少向滑动方向翻一页, 最多翻 maxPages 页
+     *
+     * @param velocity 滚动速率, 大于 0 表示向后翻页
+     * @param distance 预测的滚动距离
+     * @param maxPages 最多翻过的页数
+     * @return 第一个条目的位置
+     */
+    final int findFlingTargetPosition(int velocity, int distance, int maxPages) {
+        final int pageSize = mGeometry.getPageSize();
+        final int pagesCount = getPagesCount();
+        if (pageSize <= 0 || pagesCount <= 0)
+            return RecyclerView.NO_POSITION;
+
+        final int offset = canScrollHorizontally() ? mOffsetX : mOffsetY;
+        final int target = Math.round((offset + (float) distance) / pageSize);
+        // 循环时超过半圈会从反方向对齐
+        if (isWrapping()) {
+            maxPages = Math.min(maxPages, Math.max(1, (pagesCount - 1) / 2));
+        }
+        int page;
+        if (velocity > 0) {
+            // 当前离开的页面
+            final int from = offset / pageSize;
+            page = Math.min(Math.max(from + 1, target), from + maxPages);
+        } else {
+            final int from = (offset + pageSize - 1) / pageSize;
+            page = Math.max(Math.min(from - 1, target), from - maxPages);
+        }
+        if (isWrapping()) {
+            page = ((page % pagesCount) + pagesCount) % pagesCount;
+        } else {
+            page = Math.max(0, Math.min(pagesCount - 1, page));
+        }
+        return mGeometry.getPageFirstPosition(page, getItemCount());
+    }
 
-        final int itemCount = getItemCount();
-        final int mod = itemCount % mOnePageSize;
-        final int number = getItemCount() / mOnePageSize;
-        return number + (mod > 0 ? 1 : 0);
+    private final int getPagesCount() {
+        return mGeometry.getPagesCount(getItemCount());
     }
 
     private final int getPagesIndex() {
-        Log.e("kalu", "getPagesIndex ==> ");
-
-        int pageIndex;
-        if (canScrollVertically()) {
-            int pageHeight = getRealHeight();
-            if (mOffsetY <= 0 || pageHeight <= 0) {
-                pageIndex = 0;
-            } else {
-                pageIndex = mOffsetY / pageHeight;
-                if (mOffsetY % pageHeight > pageHeight / 2) {
-                    pageIndex++;
-                }
-            }
-        } else {
-            int pageWidth = getRealWidth();
-            if (mOffsetX <= 0 || pageWidth <= 0) {
-                pageIndex = 0;
-            } else {
-                pageIndex = mOffsetX / pageWidth;
-                if (mOffsetX % pageWidth > pageWidth / 2) {
-                    pageIndex++;
-                }
-            }
+        final int page = mGeometry.getPageIndexByOffset(canScrollHorizontally() ? mOffsetX : mOffsetY);
+        // 循环时最后一页超过一半算作第一页
+        if (isWrapping()) {
+            final int pagesCount = getPagesCount();
+            return page >= pagesCount ? page - pagesCount : page;
         }
-        return pageIndex;
+        return page;
     }
 
     /**
-     * 回收和填充布局
+     * 回收和填充布局, 可见窗口已经由调用者计算
+     * 仍在显示区域内的View保留(滚动时已经偏移到位), 只回收移出和填充移入显示区域的行或列
      *
-     * @param recycler Recycler
-     * @param state    State
-     * @param isStart  是否从头开始，用于控制View遍历方向，true 为从头到尾，false 为从尾到头
+     * @param recycler  Recycler
+     * @param itemCount 条目总数
+     * @param isStart   是否从头开始，用于控制View遍历方向，true 为从头到尾，false 为从尾到头
+     * @param isScroll  是否由滚动触发, 滚动时只填充新进入窗口的部分
      */
-    private final void recycleAndFillItems(RecyclerView.Recycler recycler, RecyclerView.State state, boolean isStart) {
-        if (state.isPreLayout()) {
-            return;
-        }
+    private final void recycleAndFillItems(RecyclerView.Recycler recycler, int itemCount, boolean isStart, boolean isScroll) {
 
-        Log.e("kalu", "mOffsetX = " + mOffsetX);
-        Log.e("kalu", "mOffsetY = " + mOffsetY);
-
-        // 计算显示区域区前后多存储一列或则一行
-        final int left = mOffsetX - mItemWidth;
-        final int top = mOffsetY - mItemHeight;
-        final int right = getRealWidth() + mOffsetX + mItemWidth;
-        final int bottom = getRealHeight() + mOffsetY + mItemHeight;
-        final Rect displayRect = new Rect(left, top, right, bottom);
-        // 对显显示区域进行修正(计算当前显示区域和最大显示区域对交集)
-        displayRect.intersect(0, 0, mMaxScrollX + getRealWidth(), mMaxScrollY + getRealHeight());
-        Log.e("kalu", "displayRect = " + displayRect.toString());
-
-        int startPos = 0;                  // 获取第一个条目的Pos
-        int pageIndex = getPagesIndex();
-        startPos = pageIndex * mOnePageSize;
-        Log.e("kalu", "startPos = " + startPos);
-        startPos = startPos - mOnePageSize * 2;
-        if (startPos < 0) {
-            startPos = 0;
+        if (null != mTracer) {
+            mTracer.beginSection(PagerGridTracer.SECTION_FILL);
         }
-        int stopPos = startPos + mOnePageSize * 4;
-        if (stopPos > getItemCount()) {
-            stopPos = getItemCount();
+
+        final PagerGridGeometry geometry = mGeometry;
+        final boolean wrapping = geometry.isWrapping(itemCount);
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final View child = getChildAt(i);
+            final int position = getPosition(child);
+            if (!geometry.isInWindow(position) || (wrapping && isWrappedAway(child, position))) {
+                removeAndRecycleView(child, recycler);
+                if (null != mMetrics) {
+                    mMetrics.mRecycledCount++;
+                }
+            }
         }
 
-        Log.e("kalu", "startPos = " + startPos);
-        Log.e("kalu", "stopPos = " + stopPos);
+        final int start = geometry.getWindowStart();
+        final int stop = geometry.getWindowStop();
+        // 快速滑动时跳过的快照页面之后可能需要填充, 仍然检查整个窗口
+        if (isScroll && mFilledValid && !mSnapshotSkipped) {
+            // 与上一次填充的窗口相交的条目已经添加, 只遍历新进入窗口的部分
+            final int fillStart = isStart ? Math.max(start, mFilledStop) : start;
+            final int fillStop = isStart ? stop : Math.min(stop, mFilledStart);
+            if (fillStart < fillStop) {
+                mFillingStrip = true;
+                geometry.setWindowRange(fillStart, fillStop, itemCount);
+                fillWindow(recycler, itemCount, isStart);
+                geometry.setWindowRange(start, stop, itemCount);
+                mFillingStrip = false;
+            }
+        } else {
+            collectAttachedPositions();
+            fillWindow(recycler, itemCount, isStart);
+            mAttachedCount = 0;
+        }
+        mFilledValid = true;
+        mFilledStart = start;
+        mFilledStop = stop;
 
-        detachAndScrapAttachedViews(recycler); // 移除所有View
+        if (null != mTracer) {
+            mTracer.onFillRange(geometry.getWindowStartPage(), geometry.getWindowStopPage(), getChildCount());
+            mTracer.endSection();
+        }
+    }
 
+    /**
+     * 填充显示区域内还没有添加的条目, 可见窗口已经由调用者计算
+     *
+     * @param recycler  Recycler
+     * @param itemCount 条目总数
+     * @param isStart   是否从头开始，用于控制View遍历方向，true 为从头到尾，false 为从尾到头
+     */
+    private final void fillWindow(RecyclerView.Recycler recycler, int itemCount, boolean isStart) {
+        final int startPage = mGeometry.getWindowStartPage();
+        final int stopPage = mGeometry.getWindowStopPage();
+        if (null != mMetrics && stopPage >= startPage) {
+            mMetrics.mPagesTouched += stopPage - startPage + 1;
+        }
         if (isStart) {
-            for (int i = startPos; i < stopPos; i++) {
-                addOrRemove(recycler, displayRect, i);
+            for (int i = startPage; i <= stopPage; i++) {
+                fillPage(recycler, i, itemCount);
             }
         } else {
-            for (int i = stopPos - 1; i >= startPos; i--) {
-                addOrRemove(recycler, displayRect, i);
+            for (int i = stopPage; i >= startPage; i--) {
+                fillPage(recycler, i, itemCount);
             }
         }
-        Log.e("kalu", "child count = " + getChildCount());
+    }
+
+    /**
+     * 记录已经添加的条目, 填充整个窗口时跳过
+     */
+    private final void collectAttachedPositions() {
+        final int count = getChildCount();
+        if (mAttachedPositions.length < count) {
+            mAttachedPositions = new int[Math.max(count, mAttachedPositions.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            mAttachedPositions[i] = getPosition(getChildAt(i));
+        }
+        Arrays.sort(mAttachedPositions, 0, count);
+        mAttachedCount = count;
+    }
+
+    /**
+     * 条目是否已经添加
+     * 只填充新进入窗口的部分时, 与上一次填充的窗口相交的条目已经添加; 填充整个窗口时查找布局前记录的条目
+     *
+     * @param position 条目下标
+     * @return true 已经添加
+     */
+    private final boolean isAttached(int position) {
+        if (mFillingStrip)
+            return mGeometry.isInRange(position, mFilledStart, mFilledStop);
+        return mAttachedCount > 0 && Arrays.binarySearch(mAttachedPositions, 0, mAttachedCount, position) >= 0;
+    }
+
+    /**
+     * 循环时条目在窗口中的位置与添加时相差整数圈(页数正好够用时, 窗口移动后同一页面可能换到另一端)
+     * 这样的条目仍然与窗口相交, 但是已经不在原来的位置上, 需要回收后在新的位置重新添加
+     *
+     * @param child    条目
+     * @param position 条目下标
+     * @return true 位置相差整数圈
+     */
+    private final boolean isWrappedAway(View child, int position) {
+        final int distance;
+        if (canScrollHorizontally()) {
+            final int cellLeft = mGeometry.getCellLeft(position) + mGeometry.getWrapX(position) - mOffsetX + getPaddingLeft();
+            distance = getDecoratedLeft(child) - cellLeft;
+        } else {
+            final int cellTop = mGeometry.getCellTop(position) + mGeometry.getWrapY(position) - mOffsetY + getPaddingTop();
+            distance = getDecoratedTop(child) - cellTop;
+        }
+        return Math.abs(distance) >= mGeometry.getPageSize();
     }
 
     /**************************************    滚动    ********************************************/
 
+    @Override
+    public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+        mRecyclerView = view;
+        if (null != mSharedViewPool && view.getRecycledViewPool() != mSharedViewPool) {
+            view.setRecycledViewPool(mSharedViewPool);
+        }
+        resizeViewPool();
+        if (null != mSnapshotCache) {
+            view.addItemDecoration(mSnapshotDecoration);
+        }
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        view.removeCallbacks(mPageDemandRunnable);
+        view.removeCallbacks(mPageEventRunnable);
+        mPageEvents = 0;
+        view.removeItemDecoration(mSnapshotDecoration);
+        mSettlePage = -1;
+        mRecyclerView = null;
+        // 共用回收池时, 离开窗口的网格把条目还给回收池, 供其他网格使用
+        if (null != mSharedViewPool) {
+            removeAndRecycleAllViews(recycler);
+            recycler.clear();
+        }
+    }
+
     @Override
     public void onScrollStateChanged(int state) {
         mScrollState = state;
         super.onScrollStateChanged(state);
+        // 手指拖动时 RecyclerView 已经停止了翻页滚动
+        if (state == SCROLL_STATE_DRAGGING) {
+            mSettlePage = -1;
+        }
         if (state != SCROLL_STATE_IDLE)
             return;
         setPageIndex(getPagesIndex(), false);
+        onPageSettled();
+    }
+
+    @Override
+    public void startSmoothScroll(RecyclerView.SmoothScroller smoothScroller) {
+        // 快速滑动的目标页面, 经过的页面绘制快照; 翻一页时没有经过的页面
+        final int target = smoothScroller.getTargetPosition();
+        final boolean isPageTurn = smoothScroller instanceof PagerGridPageScroller;
+        mSettlePage = null == mSnapshotCache || target == RecyclerView.NO_POSITION || isPageTurn ? -1 : getPageIndexByPos(target);
+        super.startSmoothScroll(smoothScroller);
     }
 
     @Override
     public PointF computeScrollVectorForPosition(int targetPosition) {
-        PointF vector = new PointF();
+        // 向量会被 LinearSmoothScroller 归一化后保存, 同一目标每次计算结果相同, 因此可以复用
         int[] pos = getSnapOffset(targetPosition);
-        vector.x = pos[0];
-        vector.y = pos[1];
-        return vector;
+        mScrollVector.set(pos[0], pos[1]);
+        return mScrollVector;
     }
 
     @Override
     public boolean canScrollHorizontally() {
-        return mOrientation == LinearLayout.HORIZONTAL;
+        return mGeometry.getOrientation() == PagerGridGeometry.HORIZONTAL;
     }
 
     @Override
     public boolean canScrollVertically() {
-        return mOrientation == LinearLayout.VERTICAL;
+        return mGeometry.getOrientation() == PagerGridGeometry.VERTICAL;
     }
 
     @Override
@@ -488,15 +906,30 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
     public int scrollHorizontallyBy(int dx, RecyclerView.Recycler recycler, RecyclerView.State state) {
         int newX = mOffsetX + dx;
         int result = dx;
-        if (newX > mMaxScrollX) {
+        if (isWrapping()) {
+            // 循环时没有边界
+        } else if (newX > mMaxScrollX) {
             result = mMaxScrollX - mOffsetX;
         } else if (newX < 0) {
             result = 0 - mOffsetX;
         }
         mOffsetX += result;
+        wrapOffset();
+        if (result != 0) {
+            postPageEvent(PAGE_EVENT_SCROLLED);
+        }
+        if (null != mTracer) {
+            mTracer.beginSection(PagerGridTracer.SECTION_SCROLL);
+        }
+        beginMetrics(PagerGridMetrics.PASS_SCROLL);
         setPageIndex(getPagesIndex(), true);
         offsetChildrenHorizontal(-result);
-        recycleAndFillItems(recycler, state, result > 0);
+        mGeometry.computeWindow(mOffsetX, mOffsetY, state.getItemCount());
+        recycleAndFillItems(recycler, state.getItemCount(), result > 0, true);
+        if (null != mTracer) {
+            mTracer.endSection();
+        }
+        endMetrics();
         return result;
     }
 
@@ -505,18 +938,89 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
             state) {
         int newY = mOffsetY + dy;
         int result = dy;
-        if (newY > mMaxScrollY) {
+        if (isWrapping()) {
+            // 循环时没有边界
+        } else if (newY > mMaxScrollY) {
             result = mMaxScrollY - mOffsetY;
         } else if (newY < 0) {
             result = 0 - mOffsetY;
         }
         mOffsetY += result;
+        wrapOffset();
+        if (result != 0) {
+            postPageEvent(PAGE_EVENT_SCROLLED);
+        }
+        if (null != mTracer) {
+            mTracer.beginSection(PagerGridTracer.SECTION_SCROLL);
+        }
+        beginMetrics(PagerGridMetrics.PASS_SCROLL);
         setPageIndex(getPagesIndex(), true);
         offsetChildrenVertical(-result);
-        recycleAndFillItems(recycler, state, result > 0);
+        mGeometry.computeWindow(mOffsetX, mOffsetY, state.getItemCount());
+        recycleAndFillItems(recycler, state.getItemCount(), result > 0, true);
+        if (null != mTracer) {
+            mTracer.endSection();
+        }
+        endMetrics();
         return result;
     }
 
+    /**
+     * 滚动时预取正在进入的页面中还没有添加的条目, 由 GapWorker 在帧间空闲时创建和绑定
+     */
+    @Override
+    public void collectAdjacentPrefetchPositions(int dx, int dy, RecyclerView.State state, LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        final boolean horizontally = canScrollHorizontally();
+        final int delta = horizontally ? dx : dy;
+        final int pageSize = mGeometry.getPageSize();
+        // 等待重新布局时条目位置可能变化, 不预取
+        if (delta == 0 || pageSize <= 0 || getChildCount() == 0 || !mGeometry.isReady() || !mFilledValid)
+            return;
+
+        // 显示区域 [offset, offset + pageSize), 正在进入的页面(额外保留的页面之外的下一页)
+        final int offset = horizontally ? mOffsetX : mOffsetY;
+        final int limit = mGeometry.getOffscreenPageLimit();
+        final int page = delta > 0 ? offset / pageSize + 1 + limit : (offset + pageSize - 1) / pageSize - 1 - limit;
+        final int itemCount = state.getItemCount();
+        final boolean wrapping = mGeometry.isWrapping(itemCount);
+        if (!wrapping && (page < 0 || page >= mGeometry.getPagesCount(itemCount)))
+            return;
+
+        // 循环时页码可能超出范围, 条目位置需要加上页面之间的偏移
+        final int realPage = wrapping ? mGeometry.toRealPage(page) : page;
+        // 快速滑动经过的页面绘制快照, 填充时不会获取条目, 预取只会浪费创建和绑定
+        if (isSnapshotPage(realPage))
+            return;
+        final int shift = (page - realPage) * pageSize;
+        final int start = mGeometry.getPageFirstPosition(realPage, itemCount);
+        final int stop = mGeometry.getPageEndPosition(realPage, itemCount);
+        for (int position = start; position < stop; position++) {
+            final int cellStart = (horizontally ? mGeometry.getCellLeft(position) : mGeometry.getCellTop(position)) + shift;
+            final int cellStop = (horizontally ? mGeometry.getCellRight(position) : mGeometry.getCellBottom(position)) + shift;
+            // 与上一次填充的窗口相交的条目已经添加
+            if (cellStart < mFilledStop && cellStop > mFilledStart)
+                continue;
+            // 条目距离显示区域边缘的距离
+            final int distance = delta > 0 ? cellStart - offset - pageSize : offset - cellStop;
+            layoutPrefetchRegistry.addPosition(position, Math.max(0, distance));
+        }
+    }
+
+    /**
+     * 嵌套在其他 RecyclerView 中时, 外层滚动到当前网格之前预取当前页面的全部条目
+     */
+    @Override
+    public void collectInitialPrefetchPositions(int adapterItemCount, LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        if (adapterItemCount <= 0)
+            return;
+        final int page = Math.min(Math.max(0, mPagesIndex), mGeometry.getPagesCount(adapterItemCount) - 1);
+        final int start = mGeometry.getPageFirstPosition(page, adapterItemCount);
+        final int stop = mGeometry.getPageEndPosition(page, adapterItemCount);
+        for (int position = start; position < stop; position++) {
+            layoutPrefetchRegistry.addPosition(position, 0);
+        }
+    }
+
     @Override
     public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
         int targetPageIndex = getPageIndexByPos(position);
@@ -535,33 +1039,52 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
 
         final int itemCount = getItemCount();
         if (itemCount <= 0) {
-            Log.e("kalu", "RecyclerView Not Found!");
             return;
         }
 
-        if (pages < 0 || pages >= mPagesCount) {
-            Log.e("kalu", "pageIndex is outOfIndex, must in [0, " + mPagesCount + ").");
+        // 循环时首尾相连, 第一页的上一页是最后一页, 最后一页的下一页是第一页
+        pages = wrapPage(pages);
+        // 只能滚动到已经加载的页面, 占位页面还没有条目
+        if (pages < 0 || pages >= getPagesCount()) {
             return;
         }
 
-        // 如果滚动到页面之间距离过大，先直接滚动到目标页面到临近页面，在使用 smoothScroll 最终滚动到目标
-        // 否则在滚动距离很大时，会导致滚动耗费的时间非常长
-        int currentPageIndex = getPagesIndex();
-        if (Math.abs(pages - currentPageIndex) > 3) {
-            if (pages > currentPageIndex) {
-                scrollToPage(pages - 3);
-            } else if (pages < currentPageIndex) {
-                scrollToPage(pages + 3);
-            }
+        final RecyclerView recyclerView = mRecyclerView;
+        if (null == recyclerView) {
+            return;
         }
 
-        // 具体执行滚动
-        final View snapView = findSnapView();
-        final Context applicationContext = snapView.getContext().getApplicationContext();
-        final LinearSmoothScroller smoothScroller = new PagerGridSmoothScroller(applicationContext);
-        int position = pages * mOnePageSize;
-        smoothScroller.setTargetPosition(position);
-        startSmoothScroll(smoothScroller);
+        // 目标页面不相邻时，先直接跳到目标页面的相邻页面(只布局一次)，再执行一页的翻页动画
+        // 否则在滚动距离很大时，会导致滚动耗费的时间非常长, 并且中间每一页都要布局
+        // 循环时按照较近的方向滚动
+        recyclerView.stopScroll();
+        final int currentPageIndex = getPagesIndex();
+        int step = pages - currentPageIndex;
+        if (isWrapping()) {
+            final int pagesCount = getPagesCount();
+            step = ((step % pagesCount) + pagesCount + pagesCount / 2) % pagesCount - pagesCount / 2;
+        }
+        if (step > 1) {
+            scrollToPage(wrapPage(pages - 1));
+        } else if (step < -1) {
+            scrollToPage(wrapPage(pages + 1));
+        }
+
+        // 具体执行滚动, 不足一页时按比例缩短动画时长
+        final int dx = wrapDistance(mGeometry.getPageLeft(pages) - mOffsetX);
+        final int dy = wrapDistance(mGeometry.getPageTop(pages) - mOffsetY);
+        final int pageSize = mGeometry.getPageSize();
+        final float fraction = pageSize <= 0 ? 1f : Math.min(1f, Math.abs(dx + dy) / (float) pageSize);
+        final int duration = (int) (mPageAnimationDuration * (0.5f + 0.5f * fraction));
+        if ((dx == 0 && dy == 0) || getChildCount() == 0)
+            return;
+
+        // 由 RecyclerView 按照翻页曲线滚动, 滚动结束(IDLE)时更新页码
+        final PagerGridPageScroller scroller = new PagerGridPageScroller(dx, dy, duration, mPageAnimationInterpolator);
+        // 滚动距离已经确定, 目标条目只用于让 onTargetFound 在第一帧被调用, 因此使用已经添加的条目
+        // 目标页面的第一个条目不一定已经添加(例如向前翻页时窗口中只有上一页的最后一列), 找不到目标时翻页滚动会停止
+        scroller.setTargetPosition(getPosition(getChildAt(0)));
+        startSmoothScroll(scroller);
     }
 
     public final void scrollPrePage() {
@@ -574,41 +1097,66 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
 
     public final void scrollToPage(int pages) {
 
+        // 停止正在执行的翻页滚动, 否则直接跳转之后还会继续滚动
+        if (null != mRecyclerView) {
+            mRecyclerView.stopScroll();
+        }
         final int itemCount = getItemCount();
         if (itemCount <= 0) {
             return;
         }
 
-        if (pages < 0 || pages >= mPagesCount) {
-            Log.e("kalu", "scrollToPage ==> pages = " + pages + ", count = " + mPagesCount);
+        // 循环时首尾相连, 第一页的上一页是最后一页, 最后一页的下一页是第一页
+        pages = wrapPage(pages);
+        // 只能滚动到已经加载的页面, 占位页面还没有条目
+        if (pages < 0 || pages >= getPagesCount()) {
             return;
         }
 
         final View child = findSnapView();
         if (null == child) {
-            Log.e("kalu", "scrollToPage ==> chile = null");
             return;
         }
 
         final ViewParent parent = child.getParent();
         if (null == parent || !(parent instanceof RecyclerView)) {
-            Log.e("kalu", "scrollToPage ==> parent = null");
             return;
         }
 
-        final boolean vertically = canScrollVertically();
-        final int x = vertically ? 0 : pages * getRealWidth() - mOffsetX;
-        final int y = vertically ? pages * getRealHeight() - mOffsetY : 0;
-        Log.e("kalu", "scrollToPage ==> x = " + x + ", y = " + y);
+        final int x = wrapDistance(mGeometry.getPageLeft(pages) - mOffsetX);
+        final int y = wrapDistance(mGeometry.getPageTop(pages) - mOffsetY);
 
         ((RecyclerView) parent).scrollBy(x, y);
-        setPageIndex(pages, false);
+        // 按照实际滚动到的位置更新页码, 滚动距离可能被最大偏移量限制
+        setPageIndex(getPagesIndex(), false);
     }
 
     /**************************************    滚动    ********************************************/
 
+    // 等待分发的页面事件
+    private static final int PAGE_EVENT_SCROLLED = 1;
+    private static final int PAGE_EVENT_SELECTED = 1 << 1;
+    private static final int PAGE_EVENT_COUNT = 1 << 2;
+
     private OnPagerGridLayoutManagerChangeListener mPageListener = null;
+    private final ArrayList<OnPagerGridPageChangeListener> mPageChangeListeners = new ArrayList<>();
+    // 分发时的监听副本, 回调中可以添加或移除监听, 复用数组避免每帧创建
+    private OnPagerGridPageChangeListener[] mDispatchingListeners = new OnPagerGridPageChangeListener[4];
+    private int mPageEvents = 0;                    // 等待分发的页面事件, 0 表示没有
+
+    // 页面事件合并到下一帧分发, 不在布局和滚动过程中回调
+    private final Runnable mPageEventRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPageEvents();
+        }
+    };
 
+    /**
+     * 设置页面变化监听, 页面总数或选中页面变化时回调, 每帧最多回调一次
+     *
+     * @param layoutManagerChangeListener 页面变化监听
+     */
     public void setOnPagerGridLayoutManagerChangeListener(OnPagerGridLayoutManagerChangeListener layoutManagerChangeListener) {
         mPageListener = layoutManagerChangeListener;
     }
@@ -621,18 +1169,1083 @@ public final class PagerGridLayoutManager extends RecyclerView.LayoutManager imp
         void onChange(int pagesCount, int pagesIndex);
     }
 
-    /**************************************    方法    ********************************************/
+    /**
+     * 添加页面变化监听, 按照添加的顺序回调
+     * 回调中添加或移除的监听从下一次分发开始生效
+     *
+     * @param listener 页面变化监听
+     */
+    public void addOnPagerGridPageChangeListener(OnPagerGridPageChangeListener listener) {
+        if (null != listener && !mPageChangeListeners.contains(listener)) {
+            mPageChangeListeners.add(listener);
+        }
+    }
 
-    public final void refreshLayoutManager(@IntRange(from = 1, to = Integer.MAX_VALUE) int rows, @IntRange(from = 1, to = Integer.MAX_VALUE) int columns, @IntRange(from = 0, to = 1) int orientation) {
+    public void removeOnPagerGridPageChangeListener(OnPagerGridPageChangeListener listener) {
+        mPageChangeListeners.remove(listener);
+    }
 
-        mOrientation = orientation;
-        mRows = rows;
-        mColumns = columns;
-        mOnePageSize = mRows * mColumns;
+    /**
+     * 页面变化监听, 事件合并到下一帧, 在布局和滚动结束后回调
+     */
+    public interface OnPagerGridPageChangeListener {
+
+        /**
+         * 滚动
+         *
+         * @param page     显示区域起点所在的页面
+         * @param fraction 显示区域起点在页面中的比例, 范围 [0, 1)
+         */
+        void onPageScrolled(int page, float fraction);
+
+        /**
+         * 选中页面变化(超过半页时算作下一页)
+         *
+         * @param page 选中页面
+         */
+        void onPageSelected(int page);
+
+        /**
+         * 页面总数变化
+         *
+         * @param pagesCount 页面总数
+         */
+        void onPageCountChanged(int pagesCount);
+    }
+
+    /**
+     * 记录页面事件, 同一帧中的事件只分发一次
+     *
+     * @param event 事件
+     */
+    private final void postPageEvent(int event) {
+        if (null == mPageListener && mPageChangeListeners.isEmpty())
+            return;
+        final RecyclerView recyclerView = mRecyclerView;
+        if (null == recyclerView)
+            return;
+        final boolean isPosted = mPageEvents != 0;
+        mPageEvents |= event;
+        if (!isPosted) {
+            ViewCompat.postOnAnimation(recyclerView, mPageEventRunnable);
+        }
+    }
+
+    /**
+     * 按照分发时的状态回调, 使用下标遍历, 回调中可以移除监听
+     */
+    private final void dispatchPageEvents() {
+        final int events = mPageEvents;
+        mPageEvents = 0;
+        if (events == 0)
+            return;
+
+        final int pagesCount = mPagesCount;
+        final int pagesIndex = mPagesIndex;
+        if ((events & (PAGE_EVENT_SELECTED | PAGE_EVENT_COUNT)) != 0 && null != mPageListener) {
+            mPageListener.onChange(pagesCount, pagesIndex);
+        }
+
+        if (mPageChangeListeners.isEmpty())
+            return;
+        final int pageSize = mGeometry.getPageSize();
+        final int offset = canScrollHorizontally() ? mOffsetX : mOffsetY;
+        final int page = pageSize <= 0 ? 0 : offset / pageSize;
+        final float fraction = pageSize <= 0 ? 0f : (offset % pageSize) / (float) pageSize;
+        final int count = mPageChangeListeners.size();
+        if (mDispatchingListeners.length < count) {
+            mDispatchingListeners = new OnPagerGridPageChangeListener[Math.max(count, mDispatchingListeners.length * 2)];
+        }
+        final OnPagerGridPageChangeListener[] listeners = mPageChangeListeners.toArray(mDispatchingListeners);
+        for (int i = 0; i < count; i++) {
+            final OnPagerGridPageChangeListener listener = listeners[i];
+            if ((events & PAGE_EVENT_COUNT) != 0) {
+                listener.onPageCountChanged(pagesCount);
+            }
+            if ((events & PAGE_EVENT_SCROLLED) != 0) {
+                listener.onPageScrolled(page, fraction);
+            }
+            if ((events & PAGE_EVENT_SELECTED) != 0) {
+                listener.onPageSelected(pagesIndex);
+            }
+        }
+        // 不持有已经移除的监听
+        Arrays.fill(listeners, 0, count, null);
+    }
+
+    /**************************************    状态    ********************************************/
+
+    private SavedState mPendingSavedState = null;
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        // 恢复的状态还没有布局(例如 RecyclerView 还没有显示)时原样保存, 否则会保存初始位置
+        if (null != mPendingSavedState) {
+            return new SavedState(mPendingSavedState);
+        }
+        final SavedState state = new SavedState();
+        state.mPagesIndex = getPagesIndex();
+        final int itemCount = getItemCount();
+        state.mAnchorPosition = itemCount <= 0 ? RecyclerView.NO_POSITION : mGeometry.getPageFirstPosition(state.mPagesIndex, itemCount);
+        state.mOffsetX = mOffsetX;
+        state.mOffsetY = mOffsetY;
+        state.mRows = mGeometry.getRows();
+        state.mColumns = mGeometry.getColumns();
+        state.mOrientation = mGeometry.getOrientation();
+        state.mPageWidth = mGeometry.getPageWidth();
+        state.mPageHeight = mGeometry.getPageHeight();
+        return state;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState))
+            return;
+        mPendingSavedState = (SavedState) state;
+        requestLayout();
+    }
+
+    /**
+     * 恢复滚动位置
+     * 行数, 列数, 分页方向和页面大小都没有变化时恢复到保存时的偏移量, 否则对齐到页面
+     * 行数或列数发生变化时, 按照保存时页面的第一个条目重新计算页码, 跨行跨列时每页的条目数量不固定, 不能由页码计算
+     *
+     * @param state 保存的状态
+     */
+    private final void restoreSavedState(SavedState state) {
+        int page = state.mPagesIndex;
+        final boolean isSameGrid = state.mRows == mGeometry.getRows() && state.mColumns == mGeometry.getColumns();
+        if (!isSameGrid) {
+            page = state.mAnchorPosition == RecyclerView.NO_POSITION ? 0 : mGeometry.getPageIndexByPos(Math.min(getItemCount() - 1, state.mAnchorPosition));
+        }
+
+        final boolean isSameOrientation = state.mOrientation == mGeometry.getOrientation();
+        final boolean isSamePageSize = state.mPageWidth == mGeometry.getPageWidth() && state.mPageHeight == mGeometry.getPageHeight();
+        if (isSameGrid && isSameOrientation && isSamePageSize) {
+            // 页面没有变化时恢复到保存时的位置
+            mOffsetX = state.mOffsetX;
+            mOffsetY = state.mOffsetY;
+        } else {
+            mOffsetX = mGeometry.getPageLeft(page);
+            mOffsetY = mGeometry.getPageTop(page);
+        }
+        markDirty(0);
+    }
+
+    /**
+     * 保存的状态, 页码, 页面的第一个条目, 偏移量, 行数, 列数, 分页方向和页面大小
+     */
+    public static class SavedState implements Parcelable {
+
+        int mPagesIndex;
+        int mAnchorPosition = RecyclerView.NO_POSITION;   // 页面的第一个条目
+        int mOffsetX, mOffsetY;
+        int mRows, mColumns;
+        int mOrientation;
+        int mPageWidth, mPageHeight;
+
+        public SavedState() {
+        }
+
+        SavedState(SavedState other) {
+            mPagesIndex = other.mPagesIndex;
+            mAnchorPosition = other.mAnchorPosition;
+            mOffsetX = other.mOffsetX;
+            mOffsetY = other.mOffsetY;
+            mRows = other.mRows;
+            mColumns = other.mColumns;
+            mOrientation = other.mOrientation;
+            mPageWidth = other.mPageWidth;
+            mPageHeight = other.mPageHeight;
+        }
+
+        SavedState(Parcel in) {
+            mPagesIndex = in.readInt();
+            mAnchorPosition = in.readInt();
+            mOffsetX = in.readInt();
+            mOffsetY = in.readInt();
+            mRows = in.readInt();
+            mColumns = in.readInt();
+            mOrientation = in.readInt();
+            mPageWidth = in.readInt();
+            mPageHeight = in.readInt();
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(mPagesIndex);
+            dest.writeInt(mAnchorPosition);
+            dest.writeInt(mOffsetX);
+            dest.writeInt(mOffsetY);
+            dest.writeInt(mRows);
+            dest.writeInt(mColumns);
+            dest.writeInt(mOrientation);
+            dest.writeInt(mPageWidth);
+            dest.writeInt(mPageHeight);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**************************************    测量    ********************************************/
+
+    private boolean mHasFixedItemSize = false;
+
+    /**
+     * 条目大小是否固定(不随绑定的数据变化)
+     * 设置为 true 时, 条目只在第一次放入当前大小的格子时按照格子测量
+     * 之后条目请求重新布局时使用上次测量的大小精确测量(EXACTLY), 内容会重新布局, 但条目大小不再变化
+     * 只适用于内容变化不会影响自身大小的条目
+     *
+     * @param hasFixedItemSize 条目大小是否固定
+     */
+    public void setHasFixedItemSize(boolean hasFixedItemSize) {
+        mHasFixedItemSize = hasFixedItemSize;
+    }
+
+    public boolean hasFixedItemSize() {
+        return mHasFixedItemSize;
+    }
+
+    /**
+     * 单独设置某一种类型的条目大小是否固定, 优先于 {@link #setHasFixedItemSize(boolean)}
+     * 例如图标大小固定, 广告大小随内容变化
+     *
+     * @param viewType         条目类型
+     * @param hasFixedItemSize 条目大小是否固定
+     */
+    public void setHasFixedItemSize(int viewType, boolean hasFixedItemSize) {
+        final PagerGridViewType type = obtainViewType(viewType);
+        type.mIsFixedSizeSet = true;
+        type.mHasFixedSize = hasFixedItemSize;
+    }
+
+    public boolean hasFixedItemSize(int viewType) {
+        final PagerGridViewType type = findViewType(viewType);
+        return null == type ? mHasFixedItemSize : type.hasFixedSize(mHasFixedItemSize);
+    }
+
+    /**
+     * 布局参数, 记录条目最后一次测量时的格子大小, 格子大小不变时不需要重新测量
+     */
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+
+        // 最后一次测量时的已经使用空间(包括分割线), -1 表示还没有测量
+        int mMeasuredWidthUsed = -1, mMeasuredHeightUsed = -1;
+        // 数据变化后需要重新绑定的条目
+        static final int POSITION_CHANGED = -2;
+
+        // 最后一次布局的位置, 用于统计新创建和重新绑定的条目, -1 表示新创建, -2 表示数据变化
+        // 数据变化后仍然添加的条目在布局时按照新的位置记录, 位置移动不算重新绑定
+        int mLastPosition = RecyclerView.NO_POSITION;
+        // 条目类型的状态, 条目的类型不会变化, 第一次获取时设置
+        PagerGridViewType mViewType = null;
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(ViewGroup.MarginLayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(RecyclerView.LayoutParams source) {
+            super(source);
+        }
+    }
+
+    /**************************************    动画    ********************************************/
+
+    private int mPageAnimationDuration = 500;       // 翻一页的动画时长(毫秒)
+    private Interpolator mPageAnimationInterpolator = PagerGridPageScroller.QUINTIC_INTERPOLATOR;   // 翻页动画插值器
+
+    /**
+     * 设置翻页动画, 用于 smoothScrollToPage 和快速滑动后的对齐
+     * 动画按照帧时间计算进度, 掉帧时直接补齐, 总时长与屏幕刷新率无关
+     *
+     * @param duration     翻一页的动画时长(毫秒), 不足一页时按比例缩短
+     * @param interpolator 插值器, null 表示使用默认插值器
+     */
+    public void setPageAnimation(@IntRange(from = 1, to = Integer.MAX_VALUE) int duration, Interpolator interpolator) {
+        mPageAnimationDuration = Math.max(1, duration);
+        mPageAnimationInterpolator = null == interpolator ? PagerGridPageScroller.QUINTIC_INTERPOLATOR : interpolator;
+    }
+
+    public int getPageAnimationDuration() {
+        return mPageAnimationDuration;
+    }
+
+    public Interpolator getPageAnimationInterpolator() {
+        return mPageAnimationInterpolator;
+    }
+
+    /**
+     * 分页方向上一页的大小, 用于按照翻页动画的速度计算滚动时长
+     *
+     * @return 一页的宽度(水平分页)或者高度(垂直分页), 布局之前为 0
+     */
+    int getPageSize() {
+        return mGeometry.getPageSize();
+    }
+
+    /**************************************    跨行跨列    ********************************************/
+
+    /**
+     * 设置条目占用的行数和列数, 传入 null 时每个条目占用一个格子
+     * 数据变化时只从受影响的页面开始重新分页, 但页面总数需要分页到最后一个条目, 因此每次数据变化后的布局为 O(n)
+     * 预布局时按照变化之前的位置查询, 查询的位置不会超出 Adapter 的条目数量, 已经移除的条目按照占用一个格子计算
+     *
+     * @param lookup 条目占用的行数和列数
+     */
+    public void setSpanSizeLookup(PagerGridSpanSizeLookup lookup) {
+        if (lookup == mGeometry.getSpanSizeLookup())
+            return;
+        mGeometry.setSpanSizeLookup(lookup);
+        markDirty(0);
+        requestLayout();
+    }
+
+    public PagerGridSpanSizeLookup getSpanSizeLookup() {
+        return mGeometry.getSpanSizeLookup();
+    }
+
+    // 预布局时的 Recycler, 用于把预布局的位置转换为 Adapter 中的位置
+    private RecyclerView.Recycler mPreLayoutRecycler = null;
+
+    /**
+     * 预布局时查询行数和列数, 数据变化之前的位置转换为 Adapter 中的位置后查询, 已经移除的条目占用一个格子
+     * 与 GridLayoutManager 相同, 不会用超出 Adapter 条目数量的位置查询
+     */
+    private final PagerGridSpanSizeLookup mPreLayoutSpanSizeLookup = new PagerGridSpanSizeLookup() {
+        @Override
+        public int getRowSpan(int position) {
+            final int adapterPosition = toPostLayoutPosition(position);
+            return adapterPosition == RecyclerView.NO_POSITION ? 1 : getSpanSizeLookup().getRowSpan(adapterPosition);
+        }
+
+        @Override
+        public int getColumnSpan(int position) {
+            final int adapterPosition = toPostLayoutPosition(position);
+            return adapterPosition == RecyclerView.NO_POSITION ? 1 : getSpanSizeLookup().getColumnSpan(adapterPosition);
+        }
+    };
+
+    private int toPostLayoutPosition(int position) {
+        return null == mPreLayoutRecycler ? position : mPreLayoutRecycler.convertPreLayoutPositionToPostLayout(position);
+    }
+
+    /**************************************    追踪    ********************************************/
+
+    private PagerGridTracer mTracer = null;
+
+    /**
+     * 设置布局追踪, 传入 null 关闭追踪
+     * {@link PagerGridSystrace}
+     *
+     * @param tracer 布局追踪
+     */
+    public void setTracer(PagerGridTracer tracer) {
+        mTracer = tracer;
+    }
+
+    PagerGridTracer getTracer() {
+        return mTracer;
+    }
+
+    /**
+     * 设置可见页面前后保留的整页数量, 这些页面保持布局和绑定, 不会被回收
+     * 在相邻页面之间来回切换时不需要重新绑定, 代价是额外占用 2 * limit 页条目的内存
+     * 页面在显示区域之外, 绘制时会被裁剪
+     *
+     * @param limit 页数, 默认 0, 只保留可见区域和前后一列或则一行
+     */
+    public void setOffscreenPageLimit(@IntRange(from = 0, to = Integer.MAX_VALUE) int limit) {
+        if (limit == mGeometry.getOffscreenPageLimit())
+            return;
+        mGeometry.setOffscreenPageLimit(limit);
+        resizeViewPool();
+        requestLayout();
+    }
+
+    public int getOffscreenPageLimit() {
+        return mGeometry.getOffscreenPageLimit();
+    }
+
+    /**************************************    加载    ********************************************/
+
+    private OnPagerGridPageDemandListener mPageDemandListener = null;
+    private int mPageDemandDistance = 1;            // 提前加载的页数
+    private int mPlaceholderItemCount = 0;          // 预计的条目总数, 0 表示未知
+    private int mDemandedStopPage = -1;             // 已经请求加载的最后一页
+    private int mDemandStartPage = 0, mDemandStopPage = -1;   // 等待回调的页面范围
+
+    // 回调在布局和滚动结束后执行, 回调中可以直接通知 Adapter 数据变化
+    private final Runnable mPageDemandRunnable = new Runnable() {
+        @Override
+        public void run() {
+            final OnPagerGridPageDemandListener listener = mPageDemandListener;
+            final int startPage = mDemandStartPage;
+            final int stopPage = mDemandStopPage;
+            mDemandStartPage = 0;
+            mDemandStopPage = -1;
+            if (null != listener && stopPage >= startPage) {
+                listener.onPageDemand(startPage, stopPage);
+            }
+        }
+    };
+
+    /**
+     * 设置分页加载监听, 当前页面距离还没有加载的页面不超过 distance 页时回调
+     * Adapter 中只需要包含已经加载的条目, 同一范围只回调一次, 加载失败后调用 {@link #resetPageDemand()} 重新请求
+     *
+     * @param listener 分页加载监听, null 表示关闭
+     * @param distance 提前加载的页数
+     */
+    public void setOnPagerGridPageDemandListener(OnPagerGridPageDemandListener listener, @IntRange(from = 0, to = Integer.MAX_VALUE) int distance) {
+        mPageDemandListener = listener;
+        mPageDemandDistance = Math.max(0, distance);
+        resetPageDemand();
+        checkPageDemand();
+    }
+
+    public interface OnPagerGridPageDemandListener {
+        /**
+         * 需要加载的页面, 回调在主线程, 不在布局过程中
+         *
+         * @param startPage 第一页
+         * @param stopPage  最后一页(包含)
+         */
+        void onPageDemand(int startPage, int stopPage);
+    }
+
+    /**
+     * 设置预计的条目总数, 数据加载之前页面总数和页面监听就可以使用完整的页数
+     * 按照每个条目占用一个格子计算页数, 不会超过预计的页数请求加载
+     *
+     * @param count 预计的条目总数, 0 表示未知
+     */
+    public void setPlaceholderItemCount(@IntRange(from = 0, to = Integer.MAX_VALUE) int count) {
+        if (count == mPlaceholderItemCount)
+            return;
+        mPlaceholderItemCount = Math.max(0, count);
+        requestLayout();
+    }
+
+    public int getPlaceholderItemCount() {
+        return mPlaceholderItemCount;
+    }
+
+    /**
+     * 清除已经请求加载的记录, 之后即将需要的页面会重新回调
+     */
+    public void resetPageDemand() {
+        mDemandedStopPage = -1;
+    }
+
+    private final int getPlaceholderPagesCount() {
+        final int count = mPlaceholderItemCount;
+        return count <= 0 ? 0 : (count - 1) / mGeometry.getOnePageSize() + 1;
+    }
+
+    /**
+     * 当前页面加上提前加载的页数超出已经加载的页面时, 请求加载超出的页面
+     */
+    private final void checkPageDemand() {
+        if (null == mPageDemandListener || null == mRecyclerView)
+            return;
+
+        final int itemCount = getItemCount();
+        final int placeholderPages = getPlaceholderPagesCount();
+        if (mPlaceholderItemCount > 0 && itemCount >= mPlaceholderItemCount)
+            return;
+
+        // 最后一页不满或者大小不确定时, 最后一页也需要加载
+        final int pagesCount = getPagesCount();
+        final boolean isLastPageFull = !mGeometry.hasSpans() && itemCount % mGeometry.getOnePageSize() == 0;
+        final int firstUnloadedPage = isLastPageFull ? pagesCount : Math.max(0, pagesCount - 1);
+
+        int stopPage = Math.max(0, mPagesIndex) + mPageDemandDistance;
+        if (placeholderPages > 0) {
+            stopPage = Math.min(stopPage, placeholderPages - 1);
+        }
+        if (stopPage < firstUnloadedPage || stopPage <= mDemandedStopPage)
+            return;
+
+        // 上一次请求还没有回调时合并范围
+        if (mDemandStopPage < mDemandStartPage) {
+            mDemandStartPage = Math.max(firstUnloadedPage, mDemandedStopPage + 1);
+        }
+        mDemandStopPage = stopPage;
+        mDemandedStopPage = stopPage;
+        mRecyclerView.removeCallbacks(mPageDemandRunnable);
+        mRecyclerView.post(mPageDemandRunnable);
+    }
+
+    /**************************************    循环    ********************************************/
+
+    /**
+     * 设置是否循环分页, 最后一页之后是第一页, 不需要重复添加数据
+     * 页码, 对齐和页面监听都使用 [0, 页面总数) 范围内的页码
+     * 页数少于 3 + 2 * offscreenPageLimit (每页只有一列或一行时为 4 + 2 * offscreenPageLimit) 时不循环, 同一条目不能同时出现在两个位置
+     *
+     * @param circular 是否循环
+     */
+    public void setCircular(boolean circular) {
+        if (circular == mGeometry.isCircular())
+            return;
+        mGeometry.setCircular(circular);
+        markDirty(0);
+        requestLayout();
+    }
+
+    public boolean isCircular() {
+        return mGeometry.isCircular();
+    }
+
+    private final boolean isWrapping() {
+        return mGeometry.isWrapping(getItemCount());
+    }
+
+    /**
+     * 循环时将偏移量限制在一圈之内
+     */
+    private final void wrapOffset() {
+        if (!isWrapping())
+            return;
+        final int length = getPagesCount() * mGeometry.getPageSize();
+        if (length <= 0)
+            return;
+        // 上一次填充的范围随偏移量一起移动, 条目在窗口中的位置不变
+        final int shift;
+        if (canScrollHorizontally()) {
+            final int offsetX = ((mOffsetX % length) + length) % length;
+            shift = offsetX - mOffsetX;
+            mOffsetX = offsetX;
+        } else {
+            final int offsetY = ((mOffsetY % length) + length) % length;
+            shift = offsetY - mOffsetY;
+            mOffsetY = offsetY;
+        }
+        mFilledStart += shift;
+        mFilledStop += shift;
+    }
+
+    /**
+     * 循环时选择较近方向的滚动距离
+     *
+     * @param distance 滚动距离
+     * @return 不超过半圈的滚动距离
+     */
+    private final int wrapDistance(int distance) {
+        if (distance == 0 || !isWrapping())
+            return distance;
+        final int length = getPagesCount() * mGeometry.getPageSize();
+        if (length <= 0)
+            return distance;
+        distance %= length;
+        if (distance > length / 2) {
+            distance -= length;
+        } else if (distance < -length / 2) {
+            distance += length;
+        }
+        return distance;
+    }
+
+    private final int wrapPage(int page) {
+        if (!isWrapping())
+            return page;
+        final int pagesCount = getPagesCount();
+        return ((page % pagesCount) + pagesCount) % pagesCount;
+    }
+
+    /**************************************    快照    ********************************************/
+
+    private PagerGridSnapshotCache mSnapshotCache = null;   // 页面快照
+    private final SnapshotDecoration mSnapshotDecoration = new SnapshotDecoration();   // 绘制快照
+    private int mSettlePage = -1;                   // 快速滑动的目标页面, -1 表示没有快速滑动
+    private boolean mSnapshotSkipped = false;       // 是否有页面因为绘制快照没有填充条目
+
+    /**
+     * 设置页面快照缓存, 传入 null 关闭快照
+     * 停止滚动时保存当前页面的快照, 快速滑动跨越多页时, 只经过不停留的页面直接绘制快照, 不绑定和布局条目
+     * 数据, 页面大小或行列变化时快照全部失效
+     *
+     * @param cache 页面快照缓存
+     */
+    public void setPageSnapshotCache(PagerGridSnapshotCache cache) {
+        if (cache == mSnapshotCache)
+            return;
+        if (null != mSnapshotCache) {
+            mSnapshotCache.clear();
+        }
+        mSnapshotCache = cache;
+        mSettlePage = -1;
+        if (null == mRecyclerView)
+            return;
+        mRecyclerView.removeItemDecoration(mSnapshotDecoration);
+        if (null != cache) {
+            mRecyclerView.addItemDecoration(mSnapshotDecoration);
+        }
+    }
+
+    public PagerGridSnapshotCache getPageSnapshotCache() {
+        return mSnapshotCache;
+    }
+
+    private final void clearPageSnapshots() {
+        if (null != mSnapshotCache) {
+            mSnapshotCache.clear();
+        }
+    }
+
+    /**
+     * 页面是否只是快速滑动经过并且有快照
+     *
+     * @param page 页码
+     */
+    private final boolean isSnapshotPage(int page) {
+        return null != mSnapshotCache && mSettlePage >= 0 && page != mSettlePage && mSnapshotCache.contains(page);
+    }
+
+    /**
+     * 停止滚动, 补齐因为绘制快照跳过的条目, 保存当前页面的快照
+     */
+    private final void onPageSettled() {
+        mSettlePage = -1;
+        countViewTypes();
+        if (mSnapshotSkipped) {
+            mSnapshotSkipped = false;
+            requestLayout();
+        }
+        capturePageSnapshot();
+    }
+
+    /**
+     * 保存当前页面的快照, 只在对齐到页面时保存
+     */
+    private final void capturePageSnapshot() {
+        final PagerGridSnapshotCache cache = mSnapshotCache;
+        final int pageSize = mGeometry.getPageSize();
+        if (null == cache || getChildCount() == 0 || pageSize <= 0 || !mGeometry.isReady())
+            return;
+        final int offset = canScrollHorizontally() ? mOffsetX : mOffsetY;
+        if (offset % pageSize != 0)
+            return;
+
+        final int page = offset / pageSize;
+        final Canvas canvas = cache.beginCapture(page, mGeometry.getPageWidth(), mGeometry.getPageHeight());
+        if (null == canvas)
+            return;
+        final int paddingLeft = getPaddingLeft();
+        final int paddingTop = getPaddingTop();
+        for (int i = 0; i < getChildCount(); i++) {
+            final View child = getChildAt(i);
+            if (getPageIndexByPos(getPosition(child)) != page)
+                continue;
+            final int count = canvas.save();
+            canvas.translate(child.getLeft() - paddingLeft, child.getTop() - paddingTop);
+            child.draw(canvas);
+            canvas.restoreToCount(count);
+        }
+        cache.endCapture();
+    }
+
+    /**
+     * 在条目下方绘制快速滑动经过的页面的快照, 已经添加的条目绘制在快照上方, 内容相同
+     */
+    private final class SnapshotDecoration extends RecyclerView.ItemDecoration {
+
+        private final Rect mPageRect = new Rect();  // 页面在 RecyclerView 中的位置
+
+        @Override
+        public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
+            final PagerGridSnapshotCache cache = mSnapshotCache;
+            if (null == cache || mSettlePage < 0)
+                return;
+            final int paddingLeft = getPaddingLeft();
+            final int paddingTop = getPaddingTop();
+            for (int page = mGeometry.getWindowStartPage(); page <= mGeometry.getWindowStopPage(); page++) {
+                final int realPage = mGeometry.toRealPage(page);
+                if (realPage == mSettlePage)
+                    continue;
+                final int left = mGeometry.getPageLeft(page) - mOffsetX + paddingLeft;
+                final int top = mGeometry.getPageTop(page) - mOffsetY + paddingTop;
+                mPageRect.set(left, top, left + mGeometry.getPageWidth(), top + mGeometry.getPageHeight());
+                cache.draw(c, realPage, mPageRect);
+            }
+        }
+    }
+
+    /**************************************    回收    ********************************************/
+
+    private boolean mAutoSizeViewPool = true;                   // 是否按照页面大小设置回收池和缓存容量
+    private PagerGridRecycledViewPool mSharedViewPool = null;   // 多个网格共用的回收池
+    private PagerGridViewType[] mViewTypes = new PagerGridViewType[4];  // 出现过的条目类型
+    private int mViewTypeCount = 0;                             // 出现过的条目类型数量
+
+    /**
+     * 是否按照页面大小自动设置回收池和缓存容量, 默认开启
+     * RecyclerView 默认每种类型只回收 5 个条目, 缓存 2 个条目, 翻一页时大部分条目都需要重新创建
+     *
+     * @param autoSize 是否自动设置
+     */
+    public void setAutoSizeRecycledViewPool(boolean autoSize) {
+        mAutoSizeViewPool = autoSize;
+        resizeViewPool();
+    }
 
-        mItemWidth = 0;
-        mItemHeight = 0;
+    public boolean isAutoSizeRecycledViewPool() {
+        return mAutoSizeViewPool;
+    }
+
+    /**
+     * 设置多个网格共用的回收池, 同一页面中的多个网格可以复用彼此回收的条目
+     * 容量取所有网格中最大的一个, 网格离开窗口时条目会回收到共用回收池
+     *
+     * @param pool 共用的回收池, null 表示使用 RecyclerView 自己的回收池
+     */
+    public void setSharedRecycledViewPool(PagerGridRecycledViewPool pool) {
+        mSharedViewPool = pool;
+        if (null != pool && null != mRecyclerView && mRecyclerView.getRecycledViewPool() != pool) {
+            mRecyclerView.setRecycledViewPool(pool);
+        }
+        resizeViewPool();
+    }
+
+    public PagerGridRecycledViewPool getSharedRecycledViewPool() {
+        return mSharedViewPool;
+    }
+
+    /**
+     * 每种类型回收池容量的上限, 翻一页时整个可见窗口的条目都可能被回收
+     */
+    private final int getViewPoolSize() {
+        return mGeometry.getWindowCellCount();
+    }
 
+    /**
+     * 缓存容量, 滚动方向上前后各一列(或一行), 反向滚动时不需要重新绑定
+     * 额外保留的页面本身就是缓存, 不需要增加
+     */
+    private final int getViewCacheSize() {
+        return mGeometry.getLineCellCount() * 2;
+    }
+
+    /**
+     * 行数, 列数或分页方向变化后重新设置缓存容量, 回收池容量在下一次布局时按照新的可见窗口重新统计
+     */
+    private final void resizeViewPool() {
+        for (int i = 0; i < mViewTypeCount; i++) {
+            mViewTypes[i].mPoolSize = 0;
+            mViewTypes[i].mWindowCount = 0;
+        }
+        if (!mAutoSizeViewPool || null == mRecyclerView)
+            return;
+        mRecyclerView.setItemViewCacheSize(getViewCacheSize());
+    }
+
+    /**
+     * 条目类型第一次出现时先按照一列(或一行)设置回收池容量, 布局结束后再按照实际出现的数量调整
+     * 布局前不知道 Adapter 有哪些类型, 因此在获取条目时按需设置
+     *
+     * @param type 条目类型
+     */
+    private final void ensureViewPoolSize(PagerGridViewType type) {
+        if (type.mPoolSize > 0)
+            return;
+        setViewPoolSize(type, Math.min(getViewPoolSize(), Math.max(1, mGeometry.getLineCellCount())));
+    }
+
+    /**
+     * 统计每种类型在可见窗口中出现的数量, 回收池容量按照出现最多时的数量设置
+     * 每页只出现一两个的类型(例如广告)不再占用整个窗口的回收池容量
+     * 只在布局和停止滚动时统计, 滚动过程中不遍历条目
+     */
+    private final void countViewTypes() {
+        final int typeCount = mViewTypeCount;
+        if (typeCount == 0)
+            return;
+        final PagerGridViewType[] types = mViewTypes;
+        for (int i = 0; i < typeCount; i++) {
+            types[i].mAttachedCount = 0;
+        }
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final LayoutParams lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            if (null != lp.mViewType && !lp.isItemRemoved()) {
+                lp.mViewType.mAttachedCount++;
+            }
+        }
+        final int maxPoolSize = getViewPoolSize();
+        for (int i = 0; i < typeCount; i++) {
+            final PagerGridViewType type = types[i];
+            if (type.mAttachedCount > type.mWindowCount) {
+                type.mWindowCount = type.mAttachedCount;
+            }
+            final int poolSize = Math.min(maxPoolSize, type.mWindowCount);
+            if (poolSize > type.mPoolSize) {
+                setViewPoolSize(type, poolSize);
+            }
+        }
+    }
+
+    private final void setViewPoolSize(PagerGridViewType type, int poolSize) {
+        if (!mAutoSizeViewPool || null == mRecyclerView || poolSize <= 0)
+            return;
+        type.mPoolSize = poolSize;
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        if (pool instanceof PagerGridRecycledViewPool) {
+            ((PagerGridRecycledViewPool) pool).ensureMaxRecycledViews(type.mViewType, poolSize);
+        } else {
+            pool.setMaxRecycledViews(type.mViewType, poolSize);
+        }
+    }
+
+    /**************************************    类型    ********************************************/
+
+    /**
+     * 获取条目类型的状态, 包括回收池容量和创建, 绑定, 测量次数
+     *
+     * @param viewType 条目类型
+     * @return 条目类型的状态, 类型还没有出现过时返回 null
+     */
+    public PagerGridViewType getViewType(int viewType) {
+        return findViewType(viewType);
+    }
+
+    /**
+     * 出现过的条目类型数量, 与 {@link #getViewTypeAt(int)} 一起遍历所有类型
+     */
+    public int getViewTypeCount() {
+        return mViewTypeCount;
+    }
+
+    public PagerGridViewType getViewTypeAt(int index) {
+        return mViewTypes[index];
+    }
+
+    /**
+     * 清空所有类型的创建, 绑定和测量次数
+     */
+    public void resetViewTypeCounts() {
+        for (int i = 0; i < mViewTypeCount; i++) {
+            mViewTypes[i].resetCounts();
+        }
+    }
+
+    /**
+     * 查找条目类型, 类型通常只有几种, 直接遍历
+     */
+    private final PagerGridViewType findViewType(int viewType) {
+        for (int i = 0; i < mViewTypeCount; i++) {
+            if (mViewTypes[i].mViewType == viewType)
+                return mViewTypes[i];
+        }
+        return null;
+    }
+
+    private final PagerGridViewType obtainViewType(int viewType) {
+        final PagerGridViewType type = findViewType(viewType);
+        if (null != type)
+            return type;
+        if (mViewTypeCount == mViewTypes.length) {
+            mViewTypes = Arrays.copyOf(mViewTypes, mViewTypeCount * 2);
+        }
+        final PagerGridViewType newType = new PagerGridViewType(viewType);
+        mViewTypes[mViewTypeCount++] = newType;
+        return newType;
+    }
+
+    /**************************************    性能    ********************************************/
+
+    private OnPagerGridMetricsListener mMetricsListener = null;
+    private PagerGridMetrics mMetrics = null;       // 复用的统计数据, 没有监听时为 null
+
+    /**
+     * 设置性能数据监听, 每次布局和滚动结束后回调, 传入 null 关闭统计
+     * 统计只有计数和一次 System.nanoTime, 不创建对象
+     *
+     * @param listener 性能数据监听
+     */
+    public void setOnPagerGridMetricsListener(OnPagerGridMetricsListener listener) {
+        mMetricsListener = listener;
+        if (null == listener) {
+            mMetrics = null;
+        } else if (null == mMetrics) {
+            mMetrics = new PagerGridMetrics();
+        }
+    }
+
+    public interface OnPagerGridMetricsListener {
+        /**
+         * @param metrics 性能数据, 对象会被复用, 只在回调中有效
+         */
+        void onMetrics(PagerGridMetrics metrics);
+    }
+
+    private final void beginMetrics(int pass) {
+        if (null != mMetrics) {
+            mMetrics.begin(pass);
+        }
+    }
+
+    private final void endMetrics() {
+        final PagerGridMetrics metrics = mMetrics;
+        final OnPagerGridMetricsListener listener = mMetricsListener;
+        if (null == metrics || null == listener)
+            return;
+        metrics.end();
+        listener.onMetrics(metrics);
+    }
+
+    /**************************************    焦点    ********************************************/
+
+    /**
+     * 方向键移动焦点, 根据(页, 行, 列)直接计算目标条目, 不经过 FocusFinder 遍历所有条目
+     * 目标条目在相邻页面并且没有添加时, 先滚动到相邻页面完成布局, 再移动焦点
+     * 没有目标条目(到达网格边缘)时交给系统处理, 焦点可以离开网格
+     */
+    @Override
+    public View onInterceptFocusSearch(View focused, int direction) {
+        final int itemCount = getItemCount();
+        if (itemCount <= 0 || null == mRecyclerView)
+            return null;
+        final View itemView = findContainingItemView(focused);
+        if (null == itemView)
+            return null;
+        final int pos = getPosition(itemView);
+        if (pos < 0)
+            return null;
+
+        final int target;
+        switch (direction) {
+            case View.FOCUS_LEFT:
+                target = mGeometry.getNeighborPosition(pos, 0, -1, itemCount);
+                break;
+            case View.FOCUS_RIGHT:
+                target = mGeometry.getNeighborPosition(pos, 0, 1, itemCount);
+                break;
+            case View.FOCUS_UP:
+                target = mGeometry.getNeighborPosition(pos, -1, 0, itemCount);
+                break;
+            case View.FOCUS_DOWN:
+                target = mGeometry.getNeighborPosition(pos, 1, 0, itemCount);
+                break;
+            case View.FOCUS_FORWARD:
+                target = pos + 1 < itemCount ? pos + 1 : (isWrapping() ? 0 : -1);
+                break;
+            case View.FOCUS_BACKWARD:
+                target = pos > 0 ? pos - 1 : (isWrapping() ? itemCount - 1 : -1);
+                break;
+            default:
+                return null;
+        }
+        if (target < 0 || target == pos)
+            return null;
+
+        View view = findViewByPosition(target);
+        if (null == view) {
+            // 相邻页面没有布局, 直接滚动过去, 滚动过程中完成布局
+            scrollToPage(getPageIndexByPos(target));
+            view = findViewByPosition(target);
+        }
+        return null != view && view.hasFocusable() ? view : null;
+    }
+
+    /**
+     * 获得焦点的条目不在当前页面时, 按页对齐滚动, 不按照条目的位置滚动
+     */
+    @Override
+    public boolean requestChildRectangleOnScreen(RecyclerView parent, View child, Rect rect, boolean immediate, boolean focusedChildVisible) {
+        final int pos = getPosition(child);
+        if (pos < 0 || pos >= getItemCount())
+            return false;
+        final int page = getPageIndexByPos(pos);
+        final int dx = wrapDistance(mGeometry.getPageLeft(page) - mOffsetX);
+        final int dy = wrapDistance(mGeometry.getPageTop(page) - mOffsetY);
+        if (dx == 0 && dy == 0)
+            return false;
+        if (immediate) {
+            scrollToPage(page);
+        } else {
+            smoothScrollToPage(page);
+        }
+        return true;
+    }
+
+    /**************************************    方法    ********************************************/
+
+    /**
+     * 修改行数, 列数和分页方向, 不需要通知 Adapter 数据变化
+     * 按照第一个可见条目重新分页, 该条目所在的页面保持可见
+     * 已经添加的条目直接移动到新的格子中, 不重新绑定, 只有格子大小变化的条目重新测量
+     *
+     * @param rows        行数
+     * @param columns     列数
+     * @param orientation 分页方向
+     */
+    public final void refreshLayoutManager(@IntRange(from = 1, to = Integer.MAX_VALUE) int rows, @IntRange(from = 1, to = Integer.MAX_VALUE) int columns, @IntRange(from = 0, to = 1) int orientation) {
+
+        if (rows == mGeometry.getRows() && columns == mGeometry.getColumns() && orientation == mGeometry.getOrientation())
+            return;
+
+        if (null != mRecyclerView) {
+            mRecyclerView.stopScroll();
+        }
+        if (getChildCount() > 0) {
+            mPendingAnchorPosition = findFirstVisiblePosition();
+        }
+        mGeometry.setup(rows, columns, orientation);
+        resizeViewPool();
+        clearPageSnapshots();
+        resetPageDemand();
+        mRelayoutAttached = true;
         requestLayout();
     }
+
+    /**
+     * 与显示区域相交的条目中最小的位置
+     *
+     * @return 条目下标, 没有时返回 RecyclerView.NO_POSITION
+     */
+    private final int findFirstVisiblePosition() {
+        final int left = getPaddingLeft();
+        final int top = getPaddingTop();
+        final int right = getWidth() - getPaddingRight();
+        final int bottom = getHeight() - getPaddingBottom();
+        int first = RecyclerView.NO_POSITION;
+        for (int i = 0; i < getChildCount(); i++) {
+            final View child = getChildAt(i);
+            if (getDecoratedRight(child) <= left || getDecoratedLeft(child) >= right
+                    || getDecoratedBottom(child) <= top || getDecoratedTop(child) >= bottom)
+                continue;
+            final int position = getPosition(child);
+            if (first == RecyclerView.NO_POSITION || position < first) {
+                first = position;
+            }
+        }
+        return first;
+    }
 }
\ No newline at end of file
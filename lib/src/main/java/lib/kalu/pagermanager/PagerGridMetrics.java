@@ -0,0 +1,101 @@
+package lib.kalu.pagermanager;
+
+/**
+ * description: 一次布局或滚动的性能数据
+ * 同一个对象在每次布局和滚动时复用, 只在回调中有效, 需要保存时调用方自行复制
+ */
+public final class PagerGridMetrics {
+
+    public static final int PASS_LAYOUT = 0;        // 正式布局
+    public static final int PASS_PRE_LAYOUT = 1;    // 预布局
+    public static final int PASS_SCROLL = 2;        // 滚动
+
+    int mPass;                                      // 类型
+    long mStartNanos;                               // 开始时间
+    long mElapsedNanos;                             // 耗时(纳秒)
+    int mFetchedCount;                              // 从 Recycler 获取的条目数量
+    int mCreatedCount;                              // 新创建的条目数量
+    int mReboundCount;                              // 重新绑定的条目数量
+    int mRecycledCount;                             // 回收的条目数量
+    int mMeasureCount;                              // 测量次数
+    int mPagesTouched;                              // 填充过的页面数量
+
+    PagerGridMetrics() {
+    }
+
+    /**
+     * 开始统计, 清空上一次的数据
+     *
+     * @param pass 类型
+     */
+    void begin(int pass) {
+        mPass = pass;
+        mFetchedCount = 0;
+        mCreatedCount = 0;
+        mReboundCount = 0;
+        mRecycledCount = 0;
+        mMeasureCount = 0;
+        mPagesTouched = 0;
+        mElapsedNanos = 0;
+        mStartNanos = System.nanoTime();
+    }
+
+    void end() {
+        mElapsedNanos = System.nanoTime() - mStartNanos;
+    }
+
+    /**
+     * 类型
+     *
+     * @return {@link #PASS_LAYOUT}, {@link #PASS_PRE_LAYOUT}, {@link #PASS_SCROLL}
+     */
+    public int getPass() {
+        return mPass;
+    }
+
+    public long getElapsedNanos() {
+        return mElapsedNanos;
+    }
+
+    public int getFetchedCount() {
+        return mFetchedCount;
+    }
+
+    /**
+     * 新创建的条目数量(onCreateViewHolder)
+     */
+    public int getCreatedCount() {
+        return mCreatedCount;
+    }
+
+    /**
+     * 重新绑定的条目数量(onBindViewHolder), 统计方式与 {@link PagerGridViewType#getBoundCount()} 相同, 是近似值
+     */
+    public int getReboundCount() {
+        return mReboundCount;
+    }
+
+    public int getRecycledCount() {
+        return mRecycledCount;
+    }
+
+    public int getMeasureCount() {
+        return mMeasureCount;
+    }
+
+    public int getPagesTouched() {
+        return mPagesTouched;
+    }
+
+    @Override
+    public String toString() {
+        return "PagerGridMetrics{pass=" + mPass
+                + ", elapsedNanos=" + mElapsedNanos
+                + ", fetched=" + mFetchedCount
+                + ", created=" + mCreatedCount
+                + ", rebound=" + mReboundCount
+                + ", recycled=" + mRecycledCount
+                + ", measured=" + mMeasureCount
+                + ", pagesTouched=" + mPagesTouched + "}";
+    }
+}
@@ -0,0 +1,60 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+/**
+ * description: 翻页滚动, 滚动距离, 时长和插值器通过 {@link Action#update(int, int, int, Interpolator)} 交给 RecyclerView 执行
+ * 与快速滑动后的对齐相同, 滚动状态依次为 SETTLING 和 IDLE, 滚动过程中 GapWorker 在帧间预取即将进入的条目
+ * 目标条目使用开始时已经添加的条目, 第一帧就能找到, 不需要寻找目标
+ */
+final class PagerGridPageScroller extends RecyclerView.SmoothScroller {
+
+    // 与 RecyclerView 默认的平滑滚动曲线相同
+    static final Interpolator QUINTIC_INTERPOLATOR = new Interpolator() {
+        @Override
+        public float getInterpolation(float t) {
+            t -= 1.0f;
+            return t * t * t * t * t + 1.0f;
+        }
+    };
+
+    private final int mDx, mDy;                     // 滚动距离
+    private final int mDuration;                    // 滚动时长(毫秒)
+    private final Interpolator mInterpolator;       // 插值器
+
+    /**
+     * @param dx           X 轴滚动距离
+     * @param dy           Y 轴滚动距离
+     * @param duration     滚动时长(毫秒)
+     * @param interpolator 插值器
+     */
+    PagerGridPageScroller(int dx, int dy, int duration, Interpolator interpolator) {
+        mDx = dx;
+        mDy = dy;
+        mDuration = Math.max(1, duration);
+        mInterpolator = null == interpolator ? QUINTIC_INTERPOLATOR : interpolator;
+    }
+
+    @Override
+    protected void onStart() {
+    }
+
+    @Override
+    protected void onStop() {
+    }
+
+    /**
+     * 开始前目标条目被移除, 不再滚动
+     */
+    @Override
+    protected void onSeekTargetStep(int dx, int dy, RecyclerView.State state, Action action) {
+        stop();
+    }
+
+    @Override
+    protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
+        action.update(mDx, mDy, mDuration, mInterpolator);
+    }
+}
@@ -0,0 +1,32 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+
+/**
+ * description: 多个网格共用的回收池
+ * 每个网格按照自己的页面大小申请容量, 同一类型取所有网格中最大的容量, 不会被较小的网格改小
+ */
+public class PagerGridRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    private final SparseIntArray mMaxScrap = new SparseIntArray();   // 每种类型已经申请的容量
+
+    /**
+     * 申请容量, 小于已经申请的容量时不做处理
+     *
+     * @param viewType 条目类型
+     * @param max      容量
+     */
+    public void ensureMaxRecycledViews(int viewType, int max) {
+        if (max <= mMaxScrap.get(viewType, 0))
+            return;
+        mMaxScrap.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        mMaxScrap.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+}
@@ -3,8 +3,6 @@ package lib.kalu.pagermanager;
 import android.content.Context;
 import android.support.v7.widget.LinearSmoothScroller;
 import android.support.v7.widget.RecyclerView;
-import android.util.DisplayMetrics;
-import android.util.Log;
 import android.view.View;
 import android.view.ViewParent;
 
@@ -47,8 +45,31 @@ public final class PagerGridSmoothScroller extends LinearSmoothScroller {
         final int dx = snapDistances[0];
         final int dy = snapDistances[1];
 
-        Log.e("kalu", "onTargetFound ==> dx = " + dx + ", dy = " + dy);
-        action.update(dx, dy, 500, null);
+        final PagerGridTracer tracer = layoutManager.getTracer();
+        if (null != tracer) {
+            tracer.onSnapTarget(position, dx, dy);
+        }
+        action.update(dx, dy, layoutManager.getPageAnimationDuration(), layoutManager.getPageAnimationInterpolator());
+    }
+
+    /**
+     * 寻找目标条目时的滚动时长, 速度与翻页动画相同(一页的大小对应翻一页的时长)
+     * 不超过翻一页的动画时长, 避免跨越多页时滚动过慢
+     *
+     * @param dx 滚动距离
+     * @return 滚动时长
+     */
+    @Override
+    protected int calculateTimeForScrolling(int dx) {
+        final RecyclerView.LayoutManager manager = getLayoutManager();
+        if (!(manager instanceof PagerGridLayoutManager))
+            return super.calculateTimeForScrolling(dx);
+        final PagerGridLayoutManager layoutManager = (PagerGridLayoutManager) manager;
+        final int duration = layoutManager.getPageAnimationDuration();
+        final int pageSize = layoutManager.getPageSize();
+        if (pageSize <= 0)
+            return duration;
+        return (int) Math.min(duration, (long) Math.ceil(Math.abs(dx) * (double) duration / pageSize));
     }
 
 //    @Nullable
@@ -72,17 +93,6 @@ public final class PagerGridSmoothScroller extends LinearSmoothScroller {
 //        return (boxStart + (boxEnd - boxStart) / 2) - (viewStart + (viewEnd - viewStart) / 2);
 //    }
 
-    /**
-     * 控制滑动速度
-     *
-     * @param displayMetrics
-     * @return
-     */
-    @Override
-    protected float calculateSpeedPerPixel(DisplayMetrics displayMetrics) {
-        return 0.75f;
-    }
-
 //    @Override
 //    protected int getVerticalSnapPreference() {
 //        return SNAP_TO_START;
@@ -5,8 +5,8 @@ import android.support.annotation.Nullable;
 import android.support.v7.widget.LinearSmoothScroller;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.SnapHelper;
-import android.util.Log;
 import android.view.View;
+import android.widget.OverScroller;
 
 /**
  * description: 手势
@@ -15,12 +15,54 @@ import android.view.View;
  */
 public final class PagerGridSnapHelper extends SnapHelper {
 
+    // 默认翻页速度阈值(dp/s), 默认一次最多翻过的页数
+    private static final int DEFAULT_FLING_THRESHOLD_DP = 350;
+    private static final int DEFAULT_MAX_FLING_PAGES = 10;
+
     private RecyclerView mRecyclerView;                     // RecyclerView
+    private final int[] mNoSnap = new int[2];               // 不需要对齐时复用的偏移量
+
+    private OverScroller mFlingScroller;                    // 用于预测惯性滚动距离
+    private float mDensity = 1f;                            // 屏幕密度
+    private int mFlingThresholdDp = DEFAULT_FLING_THRESHOLD_DP;  // 翻页速度阈值(dp/s)
+    private int mMaxFlingPages = DEFAULT_MAX_FLING_PAGES;   // 一次最多翻过的页数
 
     @Override
     public void attachToRecyclerView(@Nullable RecyclerView recyclerView) throws IllegalStateException {
         super.attachToRecyclerView(recyclerView);
         mRecyclerView = recyclerView;
+        if (null != recyclerView) {
+            mFlingScroller = new OverScroller(recyclerView.getContext());
+            mDensity = recyclerView.getResources().getDisplayMetrics().density;
+        } else {
+            mFlingScroller = null;
+        }
+    }
+
+    /**
+     * 设置翻页速度阈值, 低于阈值的快速滑动只对齐到最近的页面
+     *
+     * @param thresholdDp 速度阈值(dp/s), 与屏幕密度无关
+     */
+    public void setFlingThreshold(int thresholdDp) {
+        mFlingThresholdDp = Math.max(0, thresholdDp);
+    }
+
+    public int getFlingThreshold() {
+        return mFlingThresholdDp;
+    }
+
+    /**
+     * 设置一次快速滑动最多翻过的页数, 1 表示每次只翻一页
+     *
+     * @param maxFlingPages 最多翻过的页数
+     */
+    public void setMaxFlingPages(int maxFlingPages) {
+        mMaxFlingPages = Math.max(1, maxFlingPages);
+    }
+
+    public int getMaxFlingPages() {
+        return mMaxFlingPages;
     }
 
     /**
@@ -34,12 +76,18 @@ public final class PagerGridSnapHelper extends SnapHelper {
     @Override
     public int[] calculateDistanceToFinalSnap(@NonNull RecyclerView.LayoutManager layoutManager, @NonNull View targetView) {
         if (!(layoutManager instanceof PagerGridLayoutManager)) {
-            Log.e("kalu", "calculateDistanceToFinalSnap ==> layoutManager == null");
-            return new int[2];
+            mNoSnap[0] = 0;
+            mNoSnap[1] = 0;
+            return mNoSnap;
         } else {
-            final int position = layoutManager.getPosition(targetView);
-            Log.e("kalu", "calculateDistanceToFinalSnap ==> position = " + position + ", targetView = " + targetView);
-            return ((PagerGridLayoutManager) layoutManager).getSnapOffset(position);
+            final PagerGridLayoutManager manager = (PagerGridLayoutManager) layoutManager;
+            final int position = manager.getPosition(targetView);
+            final int[] offset = manager.getSnapOffset(position);
+            final PagerGridTracer tracer = manager.getTracer();
+            if (null != tracer) {
+                tracer.onSnapTarget(position, offset[0], offset[1]);
+            }
+            return offset;
         }
     }
 
@@ -96,6 +144,7 @@ public final class PagerGridSnapHelper extends SnapHelper {
     /**
      * 获取目标控件的位置下标
      * (获取滚动后第一个View的下标)
+     * 按照惯性滚动的预测距离计算目标页面, 至少翻一页, 最多翻 {@link #getMaxFlingPages()} 页
      *
      * @param layoutManager 布局管理器
      * @param velocityX     X 轴滚动速率
@@ -104,36 +153,34 @@ public final class PagerGridSnapHelper extends SnapHelper {
      */
     @Override
     public int findTargetSnapPosition(RecyclerView.LayoutManager layoutManager, int velocityX, int velocityY) {
-        Log.e("kalu", "findTargetSnapPosition ==> velocityX = " + velocityX + ", velocityY = " + velocityY);
-
         if (null == layoutManager || !(layoutManager instanceof PagerGridLayoutManager)) {
             return -1;
         } else {
             final PagerGridLayoutManager manager = (PagerGridLayoutManager) layoutManager;
-            final boolean horizontally = manager.canScrollHorizontally();
-            final boolean vertically = manager.canScrollVertically();
-            if (horizontally && !vertically) {
-                if (velocityX > 1000) {
-                    return manager.findNextPageFirstPosition();
-                } else if (velocityX < -1000) {
-                    return manager.findPrePageFirstPosition();
-                } else {
-                    return -1;
-                }
-            } else if (!horizontally && vertically) {
-                if (velocityY > 1000) {
-                    return manager.findNextPageFirstPosition();
-                } else if (velocityY < -1000) {
-                    return manager.findPrePageFirstPosition();
-                } else {
-                    return -1;
-                }
-            } else {
+            final int velocity = manager.canScrollHorizontally() ? velocityX : velocityY;
+            if (Math.abs(velocity) <= mFlingThresholdDp * mDensity) {
                 return -1;
             }
+            return manager.findFlingTargetPosition(velocity, calculateFlingDistance(velocity), mMaxFlingPages);
         }
     }
 
+    /**
+     * 预测惯性滚动的距离, 与 RecyclerView 自身 fling 使用相同的样条减速曲线
+     *
+     * @param velocity 滚动速率
+     * @return 滚动距离
+     */
+    private int calculateFlingDistance(int velocity) {
+        final OverScroller scroller = mFlingScroller;
+        if (null == scroller)
+            return 0;
+        scroller.fling(0, 0, velocity, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 0);
+        final int distance = scroller.getFinalX();
+        scroller.forceFinished(true);
+        return distance;
+    }
+
     @Nullable
     @Override
     protected RecyclerView.SmoothScroller createScroller(RecyclerView.LayoutManager layoutManager) {
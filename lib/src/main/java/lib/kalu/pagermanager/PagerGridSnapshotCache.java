@@ -0,0 +1,154 @@
+package lib.kalu.pagermanager;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.support.v4.util.LruCache;
+import android.util.SparseBooleanArray;
+
+/**
+ * description: 页面快照缓存, 按照字节数限制大小, 最近最少使用的快照先被移除
+ * 快速滑动经过的页面绘制快照, 不需要绑定和布局条目
+ * 快照按照比例缩小后保存, 用清晰度换取内存
+ */
+public final class PagerGridSnapshotCache {
+
+    private final LruCache<Integer, Bitmap> mCache;
+    // 有快照的页码, 判断页面是否有快照时不用装箱页码, 也不会加锁和调整 LruCache 的顺序
+    private final SparseBooleanArray mPages = new SparseBooleanArray();
+    private final float mScale;                     // 快照缩放比例
+    private Bitmap mSpare = null;                   // 被移除的快照, 下一次截图时复用
+
+    private final Canvas mCanvas = new Canvas();    // 截图画布
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);  // 绘制快照
+    private final Rect mSrc = new Rect();           // 快照区域
+    private int mSaveCount = 0;                     // 截图前画布的状态
+
+    /**
+     * @param maxBytes 缓存大小(字节)
+     * @param scale    快照缩放比例, 范围 (0, 1], 0.5 表示宽高各缩小一半, 内存为原来的四分之一
+     */
+    public PagerGridSnapshotCache(int maxBytes, float scale) {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("maxBytes must be > 0, maxBytes = " + maxBytes);
+        if (scale <= 0f || scale > 1f)
+            throw new IllegalArgumentException("scale must be in (0, 1], scale = " + scale);
+        mScale = scale;
+        mCache = new LruCache<Integer, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Integer page, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Integer page, Bitmap oldValue, Bitmap newValue) {
+                if (null == newValue) {
+                    mPages.delete(page);
+                }
+                if (oldValue != newValue) {
+                    mSpare = oldValue;
+                }
+            }
+        };
+    }
+
+    public float getScale() {
+        return mScale;
+    }
+
+    /**
+     * 获取页面快照
+     *
+     * @param page 页码
+     * @return 快照, 没有时返回 null
+     */
+    public Bitmap get(int page) {
+        return mPages.get(page) ? mCache.get(page) : null;
+    }
+
+    /**
+     * 页面是否有快照, 只查询页码, 不获取快照
+     *
+     * @param page 页码
+     * @return true 有快照
+     */
+    public boolean contains(int page) {
+        return mPages.get(page);
+    }
+
+    /**
+     * 移除所有快照, 数据变化后快照不再有效
+     */
+    public void clear() {
+        mCache.evictAll();
+        mPages.clear();
+        mSpare = null;
+    }
+
+    /**
+     * 开始截图, 返回的画布已经按照比例缩放, 页面左上角为原点
+     *
+     * @param page       页码
+     * @param pageWidth  页面宽度
+     * @param pageHeight 页面高度
+     * @return 画布, 快照超过缓存大小时返回 null
+     */
+    Canvas beginCapture(int page, int pageWidth, int pageHeight) {
+        final int width = Math.max(1, (int) (pageWidth * mScale));
+        final int height = Math.max(1, (int) (pageHeight * mScale));
+        if (width * height * 4 > mCache.maxSize())
+            return null;
+
+        // 优先复用同一页面原来的快照, 其次复用被移除的快照
+        Bitmap bitmap = mCache.remove(page);
+        if (!isReusable(bitmap, width, height)) {
+            bitmap = mSpare;
+        }
+        mSpare = null;
+        if (isReusable(bitmap, width, height)) {
+            bitmap.eraseColor(0);
+        } else {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+
+        mCanvas.setBitmap(bitmap);
+        mSaveCount = mCanvas.save();
+        mCanvas.scale(mScale, mScale);
+        mCache.put(page, bitmap);
+        mPages.put(page, true);
+        return mCanvas;
+    }
+
+    void endCapture() {
+        mCanvas.restoreToCount(mSaveCount);
+        // API 11 以下不能传入 null
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            mCanvas.setBitmap(null);
+        }
+    }
+
+    /**
+     * 绘制页面快照
+     *
+     * @param canvas 画布
+     * @param page   页码
+     * @param dst    页面在 RecyclerView 中的位置
+     * @return 是否有快照
+     */
+    boolean draw(Canvas canvas, int page, Rect dst) {
+        if (!mPages.get(page))
+            return false;
+        final Bitmap bitmap = mCache.get(page);
+        if (null == bitmap)
+            return false;
+        mSrc.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        canvas.drawBitmap(bitmap, mSrc, dst, mPaint);
+        return true;
+    }
+
+    private static boolean isReusable(Bitmap bitmap, int width, int height) {
+        return null != bitmap && !bitmap.isRecycled() && bitmap.getWidth() == width && bitmap.getHeight() == height;
+    }
+}
@@ -0,0 +1,274 @@
+package lib.kalu.pagermanager;
+
+import java.util.Arrays;
+
+/**
+ * description: 跨行跨列条目的分页索引
+ * 按照条目顺序依次放入页面中第一个能放下的格子, 当前页面放不下时放入下一页
+ * 每页第一个条目的位置和每个条目的格子保存在基本类型数组中, 只计算到查询的条目为止
+ * 条目到页面的查询为二分查找 O(log n), 数据变化时只需要从受影响的页面开始重新计算
+ * 页面总数需要计算到最后一个条目, 因此数据变化后第一次查询页面总数会从受影响的页面重新计算到最后, 为 O(n)
+ *
+ * 数据变化在预布局之前通知, 而预布局按照变化之前的位置查询, 因此重新计算推迟到预布局结束之后
+ * 预布局时计算新的条目使用 {@link #setPreLayoutLookup(PagerGridSpanSizeLookup)} 设置的查询,
+ * 由它把预布局的位置转换为 Adapter 中的位置, 不会用超出 Adapter 条目数量的位置查询
+ */
+final class PagerGridSpanIndex {
+
+    private static final int CELL_MASK = 0xFFFF;    // 格子下标, 低 16 位
+    private static final int SPAN_MASK = 0xFF;      // 行数和列数, 各 8 位
+
+    private final PagerGridSpanSizeLookup mLookup;
+    // 预布局时使用的查询, null 表示不在预布局
+    private PagerGridSpanSizeLookup mPreLayoutLookup = null;
+    // 等待重新计算的第一个条目, 预布局结束后生效, Integer.MAX_VALUE 表示没有
+    private int mInvalidPosition = Integer.MAX_VALUE;
+
+    private int mRows;                              // 行数
+    private int mColumns;                           // 列数
+
+    // 每个条目的格子: 格子下标(row * columns + col) | 行数 << 16 | 列数 << 24
+    private int[] mCells = new int[64];
+    private int mPackedCount = 0;                   // 已经计算的条目数量
+
+    // 每页第一个条目的位置
+    private int[] mPageStarts = new int[16];
+    private int mPageCount = 0;                     // 已经计算的页面数量
+
+    // 最后一页的格子占用情况和下一次查找的起点, 最后一页是否还可以继续放入条目
+    private boolean[] mOccupied;
+    private int mCursor = 0;
+    private boolean mPageOpen = false;
+
+    PagerGridSpanIndex(PagerGridSpanSizeLookup lookup, int rows, int columns) {
+        mLookup = lookup;
+        setGrid(rows, columns);
+    }
+
+    PagerGridSpanSizeLookup getLookup() {
+        return mLookup;
+    }
+
+    /**
+     * 设置行数和列数, 清空所有计算结果
+     *
+     * @param rows    行数
+     * @param columns 列数
+     */
+    void setGrid(int rows, int columns) {
+        if (rows * columns > CELL_MASK)
+            throw new IllegalArgumentException("too many cells in one page, rows = " + rows + ", columns = " + columns);
+        mRows = rows;
+        mColumns = columns;
+        mOccupied = new boolean[rows * columns];
+        mInvalidPosition = Integer.MAX_VALUE;
+        reset(0);
+    }
+
+    /**
+     * 条目发生变化, 从条目所在的页面开始重新计算
+     * 预布局仍然使用变化之前的结果, 预布局结束后的第一次查询时才重新计算
+     *
+     * @param position 第一个发生变化的条目
+     */
+    void invalidateFrom(int position) {
+        mInvalidPosition = Math.min(mInvalidPosition, position);
+    }
+
+    /**
+     * 设置预布局时使用的查询, 预布局结束后设置为 null
+     *
+     * @param lookup 按照预布局位置查询的行数和列数
+     */
+    void setPreLayoutLookup(PagerGridSpanSizeLookup lookup) {
+        mPreLayoutLookup = lookup;
+    }
+
+    /**
+     * 不在预布局时, 从等待重新计算的条目所在的页面开始重新计算
+     */
+    private void validate() {
+        if (null == mPreLayoutLookup && mInvalidPosition != Integer.MAX_VALUE) {
+            reset(mInvalidPosition);
+            mInvalidPosition = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 清空前一个条目所在页面及之后的计算结果
+     * 变化的条目可能放入前一页剩余的格子, 因此从前一个条目所在页面的第一个条目开始重新计算,
+     * 重新放入这一页中没有变化的条目之后, 格子占用情况与变化之前相同
+     * 清空后下一个条目总是从新页面开始, 所以变化的条目正好是下一个要计算的条目时也需要清空
+     *
+     * @param position 条目下标
+     */
+    private void reset(int position) {
+        if (position > mPackedCount)
+            return;
+        final int page = position <= 0 ? 0 : findPage(position - 1);
+        mPageCount = page;
+        mPackedCount = page == 0 ? 0 : mPageStarts[page];
+        Arrays.fill(mOccupied, false);
+        mCursor = 0;
+        mPageOpen = false;
+    }
+
+    /**************************************    查询    ********************************************/
+
+    /**
+     * 获取页面总数
+     *
+     * @param itemCount 条目总数
+     * @return 页面总数
+     */
+    int getPagesCount(int itemCount) {
+        if (itemCount <= 0)
+            return 0;
+        validate();
+        ensurePacked(itemCount - 1);
+        return findPage(itemCount - 1) + 1;
+    }
+
+    /**
+     * 根据pos，获取该View所在的页面
+     *
+     * @param pos position
+     * @return 页面的页码
+     */
+    int getPageIndexByPos(int pos) {
+        validate();
+        ensurePacked(pos);
+        return findPage(pos);
+    }
+
+    /**
+     * 获取页面的第一个条目的位置
+     *
+     * @param page      页码
+     * @param itemCount 条目总数
+     * @return 第一个条目的位置, 页面不存在时返回 itemCount
+     */
+    int getPageFirstPosition(int page, int itemCount) {
+        validate();
+        while (mPageCount <= page && mPackedCount < itemCount) {
+            packNext();
+        }
+        return page < mPageCount ? mPageStarts[page] : itemCount;
+    }
+
+    int getRow(int pos) {
+        validate();
+        ensurePacked(pos);
+        return (mCells[pos] & CELL_MASK) / mColumns;
+    }
+
+    int getColumn(int pos) {
+        validate();
+        ensurePacked(pos);
+        return (mCells[pos] & CELL_MASK) % mColumns;
+    }
+
+    int getRowSpan(int pos) {
+        validate();
+        ensurePacked(pos);
+        return (mCells[pos] >>> 16) & SPAN_MASK;
+    }
+
+    int getColumnSpan(int pos) {
+        validate();
+        ensurePacked(pos);
+        return (mCells[pos] >>> 24) & SPAN_MASK;
+    }
+
+    /**************************************    计算    ********************************************/
+
+    private void ensurePacked(int pos) {
+        while (mPackedCount <= pos) {
+            packNext();
+        }
+    }
+
+    /**
+     * 二分查找已经计算的页面中包含条目的页面
+     */
+    private int findPage(int pos) {
+        int low = 0, high = mPageCount - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (mPageStarts[mid] <= pos) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 计算下一个条目的格子
+     */
+    private void packNext() {
+        final int position = mPackedCount;
+        final PagerGridSpanSizeLookup lookup = null == mPreLayoutLookup ? mLookup : mPreLayoutLookup;
+        final int rowSpan = Math.max(1, Math.min(Math.min(mRows, SPAN_MASK), lookup.getRowSpan(position)));
+        final int columnSpan = Math.max(1, Math.min(Math.min(mColumns, SPAN_MASK), lookup.getColumnSpan(position)));
+
+        int cell = mPageOpen ? findFreeCell(rowSpan, columnSpan) : -1;
+        if (cell < 0) {
+            // 当前页面放不下, 放入新的页面
+            if (mPageCount == mPageStarts.length) {
+                mPageStarts = Arrays.copyOf(mPageStarts, mPageCount * 2);
+            }
+            mPageStarts[mPageCount++] = position;
+            Arrays.fill(mOccupied, false);
+            mCursor = 0;
+            mPageOpen = true;
+            cell = 0;
+        }
+
+        final int row = cell / mColumns;
+        final int col = cell % mColumns;
+        for (int r = row; r < row + rowSpan; r++) {
+            for (int c = col; c < col + columnSpan; c++) {
+                mOccupied[r * mColumns + c] = true;
+            }
+        }
+        mCursor = cell + columnSpan;
+
+        if (position == mCells.length) {
+            mCells = Arrays.copyOf(mCells, position * 2);
+        }
+        mCells[position] = cell | rowSpan << 16 | columnSpan << 24;
+        mPackedCount++;
+    }
+
+    /**
+     * 从上一个条目之后开始查找能放下条目的格子
+     *
+     * @return 格子下标, 放不下时返回 -1
+     */
+    private int findFreeCell(int rowSpan, int columnSpan) {
+        final int size = mRows * mColumns;
+        for (int cell = mCursor; cell < size; cell++) {
+            final int row = cell / mColumns;
+            final int col = cell % mColumns;
+            if (row + rowSpan > mRows)
+                return -1;
+            if (col + columnSpan > mColumns)
+                continue;
+            if (isFree(row, col, rowSpan, columnSpan))
+                return cell;
+        }
+        return -1;
+    }
+
+    private boolean isFree(int row, int col, int rowSpan, int columnSpan) {
+        for (int r = row; r < row + rowSpan; r++) {
+            for (int c = col; c < col + columnSpan; c++) {
+                if (mOccupied[r * mColumns + c])
+                    return false;
+            }
+        }
+        return true;
+    }
+}
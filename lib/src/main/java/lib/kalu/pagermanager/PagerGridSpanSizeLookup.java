@@ -0,0 +1,28 @@
+package lib.kalu.pagermanager;
+
+/**
+ * description: 条目占用的行数和列数, 默认每个条目占用一个格子
+ * 同一个条目每次返回的结果必须相同, 结果发生变化时需要通知 Adapter 数据变化
+ */
+public abstract class PagerGridSpanSizeLookup {
+
+    /**
+     * 条目占用的行数, 超过页面行数时按照页面行数计算
+     *
+     * @param position 条目下标
+     * @return 行数
+     */
+    public int getRowSpan(int position) {
+        return 1;
+    }
+
+    /**
+     * 条目占用的列数, 超过页面列数时按照页面列数计算
+     *
+     * @param position 条目下标
+     * @return 列数
+     */
+    public int getColumnSpan(int position) {
+        return 1;
+    }
+}
@@ -0,0 +1,41 @@
+package lib.kalu.pagermanager;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * description: 输出 android.os.Trace 区间, 在 systrace/perfetto 中查看布局和滚动耗时
+ * 需要关注具体事件时继承此类并重写对应方法
+ */
+public class PagerGridSystrace implements PagerGridTracer {
+
+    @Override
+    public void beginSection(String section) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(section);
+        }
+    }
+
+    @Override
+    public void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+
+    @Override
+    public void onLayoutPass(int itemCount, int pagesCount, int pagesIndex, boolean isPreLayout, boolean isStructureChanged) {
+    }
+
+    @Override
+    public void onFillRange(int startPage, int stopPage, int childCount) {
+    }
+
+    @Override
+    public void onPageChange(int pagesCount, int pagesIndex, boolean isScrolling) {
+    }
+
+    @Override
+    public void onSnapTarget(int position, int dx, int dy) {
+    }
+}
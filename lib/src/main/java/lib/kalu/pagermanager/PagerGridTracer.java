@@ -0,0 +1,62 @@
+package lib.kalu.pagermanager;
+
+/**
+ * description: 布局追踪, 用于替代调试日志
+ * 未设置时布局管理器不会产生任何额外开销, 事件参数全部为基本类型, 不会创建字符串
+ */
+public interface PagerGridTracer {
+
+    String SECTION_LAYOUT = "PagerGrid#onLayoutChildren";   // 布局
+    String SECTION_SCROLL = "PagerGrid#scroll";             // 滚动
+    String SECTION_FILL = "PagerGrid#fill";                 // 回收和填充
+
+    /**
+     * 开始一段追踪区间
+     *
+     * @param section 区间名称, 取值为 SECTION_* 常量
+     */
+    void beginSection(String section);
+
+    /**
+     * 结束最近一次开始的追踪区间
+     */
+    void endSection();
+
+    /**
+     * 布局
+     *
+     * @param itemCount          条目总数
+     * @param pagesCount         页面总数
+     * @param pagesIndex         当前页面下标
+     * @param isPreLayout        是否是 preLayout
+     * @param isStructureChanged 数据结构是否发生变化
+     */
+    void onLayoutPass(int itemCount, int pagesCount, int pagesIndex, boolean isPreLayout, boolean isStructureChanged);
+
+    /**
+     * 回收和填充
+     *
+     * @param startPage  填充的第一页
+     * @param stopPage   填充的最后一页
+     * @param childCount 填充后的View数量
+     */
+    void onFillRange(int startPage, int stopPage, int childCount);
+
+    /**
+     * 页面变化
+     *
+     * @param pagesCount  页面总数
+     * @param pagesIndex  当前页面下标
+     * @param isScrolling 是否正在滚动
+     */
+    void onPageChange(int pagesCount, int pagesIndex, boolean isScrolling);
+
+    /**
+     * 对齐目标
+     *
+     * @param position 目标条目下标
+     * @param dx       X 轴需要滚动的距离
+     * @param dy       Y 轴需要滚动的距离
+     */
+    void onSnapTarget(int position, int dx, int dy);
+}
@@ -0,0 +1,90 @@
+package lib.kalu.pagermanager;
+
+/**
+ * description: 一种条目类型的状态, 包括测量提示, 回收池容量和创建, 绑定, 测量次数
+ * 不同类型的条目创建和测量的耗时差别很大, 按类型统计可以找到翻页时卡顿的条目
+ * 对象由 PagerGridLayoutManager 持有并复用, 计数从第一次出现或者上一次清空时开始累计
+ */
+public final class PagerGridViewType {
+
+    final int mViewType;                            // 条目类型
+
+    boolean mIsFixedSizeSet = false;                // 是否单独设置了大小固定, 没有设置时使用全局设置
+    boolean mHasFixedSize = false;                  // 条目大小是否固定
+
+    int mPoolSize = 0;                              // 已经设置的回收池容量, 0 表示还没有设置
+    int mWindowCount = 0;                           // 可见窗口中同时出现的最大数量
+    int mAttachedCount = 0;                         // 统计时已经添加的数量
+
+    int mCreatedCount = 0;                          // 新创建的条目数量
+    int mBoundCount = 0;                            // 重新绑定的条目数量
+    int mMeasureCount = 0;                          // 测量次数
+
+    PagerGridViewType(int viewType) {
+        mViewType = viewType;
+    }
+
+    public int getViewType() {
+        return mViewType;
+    }
+
+    /**
+     * 条目大小是否固定
+     *
+     * @param defaultValue 没有单独设置时的值
+     */
+    boolean hasFixedSize(boolean defaultValue) {
+        return mIsFixedSizeSet ? mHasFixedSize : defaultValue;
+    }
+
+    /**
+     * 回收池容量, 按照可见窗口中同时出现的最大数量设置, 不超过可见窗口的格子数量
+     */
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    public int getWindowCount() {
+        return mWindowCount;
+    }
+
+    /**
+     * 新创建的条目数量(onCreateViewHolder)
+     */
+    public int getCreatedCount() {
+        return mCreatedCount;
+    }
+
+    /**
+     * 重新绑定的条目数量(onBindViewHolder), 包括复用后放到其他位置和数据变化的条目
+     * 从缓存中取回原位置的条目, 以及数据变化后只是移动了位置的条目不计算在内
+     * 没有添加的条目(缓存和回收池中)无法跟踪: 数据变化时移动了位置的缓存条目取回时会多算,
+     * 从回收池取回并且放回原位置的条目会漏算, 计数是近似值
+     */
+    public int getBoundCount() {
+        return mBoundCount;
+    }
+
+    public int getMeasureCount() {
+        return mMeasureCount;
+    }
+
+    /**
+     * 清空创建, 绑定和测量次数
+     */
+    public void resetCounts() {
+        mCreatedCount = 0;
+        mBoundCount = 0;
+        mMeasureCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PagerGridViewType{viewType=" + mViewType
+                + ", poolSize=" + mPoolSize
+                + ", windowCount=" + mWindowCount
+                + ", created=" + mCreatedCount
+                + ", bound=" + mBoundCount
+                + ", measured=" + mMeasureCount + "}";
+    }
+}
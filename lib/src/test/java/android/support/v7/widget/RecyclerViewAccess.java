@@ -0,0 +1,18 @@
+package android.support.v7.widget;
+
+/**
+ * description: 测试中直接调用 LayoutManager 的滚动方法时, 需要 RecyclerView 内部的 Recycler 和 State
+ */
+public final class RecyclerViewAccess {
+
+    private RecyclerViewAccess() {
+    }
+
+    public static RecyclerView.Recycler getRecycler(RecyclerView recyclerView) {
+        return recyclerView.mRecycler;
+    }
+
+    public static RecyclerView.State getState(RecyclerView recyclerView) {
+        return recyclerView.mState;
+    }
+}
@@ -0,0 +1,107 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description: 稳定滚动时(没有条目进出可见窗口)每帧调用的方法不能分配对象
+ * 统计当前线程分配的字节数, 预热后多次调用, 平均每次调用不到 1 字节即没有分配
+ * Robolectric 模拟的 View 在移动时会分配对象(真机上不会), 滚动的分配量减去只移动子View的分配量
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridAllocationTest {
+
+    private static final int WARM_UP = 20000;      // 预热次数, 让 JIT 编译完成
+    private static final int ITERATIONS = 20000;   // 统计次数
+
+    private PagerGridTestHarness mHarness;
+    private PagerGridLayoutManager mLayoutManager;
+    private RecyclerView.Recycler mRecycler;
+    private RecyclerView.State mState;
+
+    @Before
+    public void setUp() {
+        mHarness = PagerGridTestHarness.detached(2, 3, PagerGridGeometry.HORIZONTAL, 60);
+        mLayoutManager = mHarness.mLayoutManager;
+        mRecycler = mHarness.getRecycler();
+        mState = mHarness.getState();
+        // 停在半列的位置, 来回滚动 1 像素时可见窗口中的条目不变
+        mHarness.mRecyclerView.scrollBy(PagerGridTestHarness.WIDTH / 3 / 2, 0);
+    }
+
+    @Test
+    public void scrollHorizontallyByDoesNotAllocate() {
+        final int childCount = mLayoutManager.getChildCount();
+        final long offset = measure(new Runnable() {
+            @Override
+            public void run() {
+                mLayoutManager.offsetChildrenHorizontal(1);
+                mLayoutManager.offsetChildrenHorizontal(-1);
+            }
+        });
+        final long scroll = measure(new Runnable() {
+            @Override
+            public void run() {
+                mLayoutManager.scrollHorizontallyBy(1, mRecycler, mState);
+                mLayoutManager.scrollHorizontallyBy(-1, mRecycler, mState);
+            }
+        });
+        final long bytes = scroll - offset;
+        assertEquals(childCount, mLayoutManager.getChildCount());
+        assertTrue("scrollHorizontallyBy allocated " + bytes + " bytes", bytes < ITERATIONS);
+    }
+
+    @Test
+    public void getSnapOffsetDoesNotAllocate() {
+        final long bytes = measure(new Runnable() {
+            @Override
+            public void run() {
+                mLayoutManager.getSnapOffset(7);
+                mLayoutManager.getSnapOffset(13);
+            }
+        });
+        assertTrue("getSnapOffset allocated " + bytes + " bytes", bytes < ITERATIONS);
+    }
+
+    @Test
+    public void computeScrollVectorForPositionDoesNotAllocate() {
+        final long bytes = measure(new Runnable() {
+            @Override
+            public void run() {
+                mLayoutManager.computeScrollVectorForPosition(7);
+                mLayoutManager.computeScrollVectorForPosition(13);
+            }
+        });
+        assertTrue("computeScrollVectorForPosition allocated " + bytes + " bytes", bytes < ITERATIONS);
+    }
+
+    /**
+     * 预热后统计调用 {@link #ITERATIONS} 次分配的字节数
+     */
+    private static long measure(Runnable runnable) {
+        for (int i = 0; i < WARM_UP; i++) {
+            runnable.run();
+        }
+        final long start = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+        return allocatedBytes() - start;
+    }
+
+    private static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
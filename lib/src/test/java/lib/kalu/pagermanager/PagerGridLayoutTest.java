@@ -0,0 +1,128 @@
+package lib.kalu.pagermanager;
+
+import android.os.Parcelable;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description: 布局过程中已经添加的条目的处理(保留, 重新测量和重新布局)和状态的保存恢复
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridLayoutTest {
+
+    @Test
+    public void childRequestingLayoutIsMeasuredAgain() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        final View child = harness.mLayoutManager.findViewByPosition(1);
+        final PagerGridTestHarness.Counts before = harness.counts();
+
+        child.requestLayout();
+        harness.layout();
+
+        final PagerGridTestHarness.Counts delta = harness.counts().minus(before);
+        assertFalse(child.isLayoutRequested());
+        assertEquals(1, delta.measured);
+        assertEquals(1, delta.laidOut);
+        assertEquals(0, delta.bound);
+    }
+
+    @Test
+    public void fixedSizeChildRequestingLayoutIsMeasuredAtItsSize() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        harness.mLayoutManager.setHasFixedItemSize(true);
+        final View child = harness.mLayoutManager.findViewByPosition(1);
+        final int width = child.getWidth();
+        final int height = child.getHeight();
+        final PagerGridTestHarness.Counts before = harness.counts();
+
+        child.requestLayout();
+        harness.layout();
+
+        final PagerGridTestHarness.Counts delta = harness.counts().minus(before);
+        assertFalse(child.isLayoutRequested());
+        assertEquals(1, delta.measured);
+        assertEquals(1, delta.laidOut);
+        assertEquals(width, child.getWidth());
+        assertEquals(height, child.getHeight());
+    }
+
+    @Test
+    public void changedGridRestoresFirstItemOfSavedPageWithSpans() {
+        final PagerGridTestHarness saved = spanned(2, 3);
+        saved.mLayoutManager.scrollToPage(3);
+        final int anchor = positionAt(saved, 0, 0);
+        final Parcelable state = saved.mLayoutManager.onSaveInstanceState();
+
+        // 跨行跨列时每页的条目数量不固定, 第 3 页的第一个条目不是 3 * 2 * 3
+        final PagerGridTestHarness restored = spanned(3, 3);
+        restored.mLayoutManager.onRestoreInstanceState(state);
+        restored.layout();
+
+        final View child = restored.mLayoutManager.findViewByPosition(anchor);
+        assertNotNull(child);
+        final int left = restored.mLayoutManager.getDecoratedLeft(child);
+        assertTrue("left = " + left, left >= 0 && left < PagerGridTestHarness.WIDTH);
+    }
+
+    @Test
+    public void pendingStateIsSavedBeforeLayout() {
+        final PagerGridLayoutManager layoutManager = new PagerGridLayoutManager(2, 3, PagerGridGeometry.HORIZONTAL);
+        final PagerGridLayoutManager.SavedState state = new PagerGridLayoutManager.SavedState();
+        state.mPagesIndex = 3;
+        state.mAnchorPosition = 18;
+        state.mOffsetX = 3 * PagerGridTestHarness.WIDTH;
+        state.mRows = 2;
+        state.mColumns = 3;
+        state.mPageWidth = PagerGridTestHarness.WIDTH;
+        state.mPageHeight = PagerGridTestHarness.HEIGHT;
+        layoutManager.onRestoreInstanceState(state);
+
+        // 还没有布局时再次保存, 应该保存恢复的状态而不是初始位置
+        final PagerGridLayoutManager.SavedState saved = (PagerGridLayoutManager.SavedState) layoutManager.onSaveInstanceState();
+        assertNotSame(state, saved);
+        assertEquals(state.mPagesIndex, saved.mPagesIndex);
+        assertEquals(state.mAnchorPosition, saved.mAnchorPosition);
+        assertEquals(state.mOffsetX, saved.mOffsetX);
+        assertEquals(state.mRows, saved.mRows);
+        assertEquals(state.mColumns, saved.mColumns);
+        assertEquals(state.mPageWidth, saved.mPageWidth);
+        assertEquals(state.mPageHeight, saved.mPageHeight);
+    }
+
+    /**
+     * 每 4 个条目中第一个占两列的网格, 60 个条目
+     */
+    private static PagerGridTestHarness spanned(int rows, int columns) {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(rows, columns, PagerGridGeometry.HORIZONTAL, 60);
+        harness.mLayoutManager.setSpanSizeLookup(new PagerGridSpanSizeLookup() {
+            @Override
+            public int getColumnSpan(int position) {
+                return position % 4 == 0 ? 2 : 1;
+            }
+        });
+        harness.layout();
+        return harness;
+    }
+
+    private static int positionAt(PagerGridTestHarness harness, int x, int y) {
+        final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            final View child = layoutManager.getChildAt(i);
+            if (layoutManager.getDecoratedLeft(child) <= x && x < layoutManager.getDecoratedRight(child)
+                    && layoutManager.getDecoratedTop(child) <= y && y < layoutManager.getDecoratedBottom(child))
+                return layoutManager.getPosition(child);
+        }
+        throw new AssertionError("no child at " + x + ", " + y);
+    }
+}
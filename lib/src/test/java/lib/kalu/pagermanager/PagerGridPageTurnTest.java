@@ -0,0 +1,127 @@
+package lib.kalu.pagermanager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description: 每翻一页创建, 绑定, 回收和测量的次数
+ * 预热(回收池填满)之后每翻一页只绑定和测量进入的一页, 回收离开的一页, 不再创建条目
+ * 滚动由真实的 RecyclerView 逐帧驱动, 计数包括 GapWorker 的预取
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridPageTurnTest {
+
+    private static final int ROWS = 2;
+    private static final int COLUMNS = 3;
+    private static final int ONE_PAGE = ROWS * COLUMNS;
+    private static final int FRAME_DX = 24;         // 拖动时每帧滚动距离
+    private static final int WARM_UP_PAGES = 3;     // 预热翻页次数, 之后回收池中有足够的条目
+
+    @Test
+    public void dragPageTurnBindsOnePage() {
+        final PagerGridTestHarness harness = warmedUp(0);
+        for (int i = 0; i < 4; i++) {
+            final PagerGridTestHarness.Counts before = harness.counts();
+            harness.drag(PagerGridTestHarness.WIDTH, 0, FRAME_DX);
+            assertPageTurn(harness.counts().minus(before), 1);
+        }
+    }
+
+    @Test
+    public void dragPageTurnBindsOnePageWithOffscreenPages() {
+        final PagerGridTestHarness harness = warmedUp(1);
+        for (int i = 0; i < 4; i++) {
+            final PagerGridTestHarness.Counts before = harness.counts();
+            harness.drag(PagerGridTestHarness.WIDTH, 0, FRAME_DX);
+            assertPageTurn(harness.counts().minus(before), 1);
+        }
+    }
+
+    @Test
+    public void smoothPageTurnBindsOnePage() {
+        final PagerGridTestHarness harness = warmedUp(0);
+        for (int i = 0; i < 3; i++) {
+            final PagerGridTestHarness.Counts before = harness.counts();
+            harness.mLayoutManager.smoothNextPage();
+            harness.runFrames();
+            assertPageTurn(harness.counts().minus(before), 1);
+        }
+    }
+
+    @Test
+    public void flingSettlesOnAPageAndBindsPassedPages() {
+        final PagerGridTestHarness harness = warmedUp(0);
+        final int offset = harness.mLayoutManager.getOffsetX();
+        final PagerGridTestHarness.Counts before = harness.counts();
+
+        harness.fling(8000, 0);
+
+        final int distance = harness.mLayoutManager.getOffsetX() - offset;
+        assertTrue("fling moved " + distance, distance > PagerGridTestHarness.WIDTH);
+        assertEquals(0, distance % PagerGridTestHarness.WIDTH);
+        assertPageTurn(harness.counts().minus(before), distance / PagerGridTestHarness.WIDTH);
+    }
+
+    @Test
+    public void changedItemIsTheOnlyBind() {
+        final PagerGridTestHarness harness = warmedUp(0);
+        final PagerGridTestHarness.Counts before = harness.counts();
+
+        harness.mAdapter.notifyItemChanged(firstVisiblePosition(harness));
+        harness.runFrames();
+
+        final PagerGridTestHarness.Counts delta = harness.counts().minus(before);
+        assertEquals(0, delta.created);
+        assertEquals(1, delta.bound);
+        assertEquals(0, delta.recycled);
+    }
+
+    @Test
+    public void insertedItemDoesNotRebindShiftedItems() {
+        final PagerGridTestHarness harness = warmedUp(0);
+        final PagerGridTestHarness.Counts before = harness.counts();
+
+        harness.mAdapter.insert(firstVisiblePosition(harness));
+        harness.runFrames();
+
+        // 新条目, 以及后移一位后进入可见窗口(下一页第一列)的条目
+        final PagerGridTestHarness.Counts delta = harness.counts().minus(before);
+        assertEquals(0, delta.created);
+        assertEquals(2, delta.bound);
+    }
+
+    /**
+     * 120 个条目的 2x3 网格, 拖动翻过 {@link #WARM_UP_PAGES} 页
+     *
+     * @param offscreenPageLimit 额外保留的页面数量
+     */
+    private static PagerGridTestHarness warmedUp(int offscreenPageLimit) {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(ROWS, COLUMNS, PagerGridGeometry.HORIZONTAL, 120);
+        harness.mLayoutManager.setOffscreenPageLimit(offscreenPageLimit);
+        harness.layout();
+        harness.drag(PagerGridTestHarness.WIDTH * (WARM_UP_PAGES + offscreenPageLimit), 0, FRAME_DX);
+        return harness;
+    }
+
+    private static int firstVisiblePosition(PagerGridTestHarness harness) {
+        return harness.mLayoutManager.getOffsetX() / PagerGridTestHarness.WIDTH * ONE_PAGE;
+    }
+
+    /**
+     * 翻过 pages 页: 不创建条目, 每页绑定, 回收, 测量和布局一次
+     */
+    private static void assertPageTurn(PagerGridTestHarness.Counts delta, int pages) {
+        final String message = pages + " pages: " + delta;
+        assertEquals(message, 0, delta.created);
+        assertEquals(message, pages * ONE_PAGE, delta.bound);
+        assertEquals(message, pages * ONE_PAGE, delta.recycled);
+        assertEquals(message, pages * ONE_PAGE, delta.measured);
+        assertEquals(message, pages * ONE_PAGE, delta.laidOut);
+    }
+}
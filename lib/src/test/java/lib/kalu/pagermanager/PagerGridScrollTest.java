@@ -0,0 +1,198 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description: 翻页和跳转页面, 滚动状态和最终对齐的位置
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridScrollTest {
+
+    @Test
+    public void smoothNextPageSettlesThroughRecyclerView() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        final List<Integer> states = recordScrollStates(harness.mRecyclerView);
+
+        harness.mLayoutManager.smoothNextPage();
+        harness.runFrames();
+
+        assertEquals(Arrays.asList(RecyclerView.SCROLL_STATE_SETTLING, RecyclerView.SCROLL_STATE_IDLE), states);
+        assertEquals(PagerGridTestHarness.WIDTH, harness.mLayoutManager.getOffsetX());
+    }
+
+    @Test
+    public void smoothPrePageWrapsToLastPageWhenCircular() {
+        final PagerGridTestHarness harness = circular();
+
+        harness.mLayoutManager.smoothPrePage();
+        harness.runFrames();
+
+        assertEquals(4 * PagerGridTestHarness.WIDTH, harness.mLayoutManager.getOffsetX());
+    }
+
+    @Test
+    public void scrollNextPageWrapsToFirstPageWhenCircular() {
+        final PagerGridTestHarness harness = circular();
+        harness.mLayoutManager.scrollToPage(4);
+        harness.runFrames();
+
+        harness.mLayoutManager.scrollNextPage();
+        harness.runFrames();
+
+        assertEquals(0, harness.mLayoutManager.getOffsetX());
+    }
+
+    @Test
+    public void singleCellCircularPagesStayCovered() {
+        // 每页一个格子时, 可见窗口前后的一列就是一整页
+        for (int itemCount = 3; itemCount <= 5; itemCount++) {
+            final PagerGridTestHarness harness = PagerGridTestHarness.attached(1, 1, PagerGridGeometry.HORIZONTAL, itemCount);
+            harness.mLayoutManager.setCircular(true);
+            harness.layout();
+            for (int i = 0; i < 2 * itemCount * 4; i++) {
+                harness.drag(PagerGridTestHarness.WIDTH / 4, 0, PagerGridTestHarness.WIDTH / 4);
+                assertCovered(harness, 0);
+                assertCovered(harness, PagerGridTestHarness.WIDTH - 1);
+            }
+        }
+    }
+
+    @Test
+    public void circularChildrenMoveToTheirNewSlot() {
+        // 页数正好够循环时, 窗口移动后同一页面会从一端换到另一端, 条目需要重新添加到新的位置
+        final int itemCount = 4;
+        final int width = PagerGridTestHarness.WIDTH;
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(1, 1, PagerGridGeometry.HORIZONTAL, itemCount);
+        harness.mLayoutManager.setCircular(true);
+        harness.layout();
+        for (int i = 0; i < 120; i++) {
+            harness.drag(i < 80 ? 37 : -37, 0, 37);
+            final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+            final boolean[] attached = new boolean[itemCount];
+            for (int k = 0; k < layoutManager.getChildCount(); k++) {
+                final View child = layoutManager.getChildAt(k);
+                final int position = layoutManager.getPosition(child);
+                final int left = layoutManager.getDecoratedLeft(child);
+                final String message = "position " + position + " at " + left + ", offset " + layoutManager.getOffsetX();
+                assertFalse(message, attached[position]);
+                attached[position] = true;
+                // 可见窗口是当前页和前后各一页, 条目与实际位置相差整数圈
+                assertTrue(message, left > -2 * width && left < 2 * width);
+                final int loop = itemCount * width;
+                assertEquals(message, 0, ((left - position * width + layoutManager.getOffsetX()) % loop + loop) % loop);
+            }
+        }
+    }
+
+    @Test
+    public void pageChangeListenersAreCalledInOrderAndMayRemoveThemselves() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+        final List<String> calls = new ArrayList<>();
+        layoutManager.addOnPagerGridPageChangeListener(new RecordingListener("first", calls) {
+            @Override
+            public void onPageSelected(int page) {
+                super.onPageSelected(page);
+                layoutManager.removeOnPagerGridPageChangeListener(this);
+            }
+        });
+        layoutManager.addOnPagerGridPageChangeListener(new RecordingListener("second", calls));
+
+        layoutManager.scrollNextPage();
+        harness.runFrames();
+        layoutManager.scrollNextPage();
+        harness.runFrames();
+
+        assertEquals(Arrays.asList("first 1", "second 1", "second 2"), calls);
+    }
+
+    @Test
+    public void placeholderPagesAreNotScrollTargets() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        harness.mLayoutManager.setPlaceholderItemCount(60);
+        harness.runFrames();
+
+        harness.mLayoutManager.scrollToPage(7);
+        harness.mLayoutManager.smoothScrollToPage(7);
+        harness.runFrames();
+
+        assertEquals(0, harness.mLayoutManager.getOffsetX());
+    }
+
+    /**
+     * 5 页的循环网格, 停在第一页
+     */
+    private static PagerGridTestHarness circular() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 30);
+        harness.mLayoutManager.setCircular(true);
+        harness.layout();
+        return harness;
+    }
+
+    /**
+     * 可见区域中的 x 坐标被某个条目覆盖
+     */
+    private static void assertCovered(PagerGridTestHarness harness, int x) {
+        final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            final View child = layoutManager.getChildAt(i);
+            if (layoutManager.getDecoratedLeft(child) <= x && x < layoutManager.getDecoratedRight(child))
+                return;
+        }
+        fail("x = " + x + " is blank at offset " + layoutManager.getOffsetX());
+    }
+
+    private static List<Integer> recordScrollStates(RecyclerView recyclerView) {
+        final List<Integer> states = new ArrayList<>();
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                states.add(newState);
+            }
+        });
+        return states;
+    }
+
+    /**
+     * 记录选中页面的回调
+     */
+    private static class RecordingListener implements PagerGridLayoutManager.OnPagerGridPageChangeListener {
+
+        private final String mName;
+        private final List<String> mCalls;
+
+        RecordingListener(String name, List<String> calls) {
+            mName = name;
+            mCalls = calls;
+        }
+
+        @Override
+        public void onPageScrolled(int page, float fraction) {
+        }
+
+        @Override
+        public void onPageSelected(int page) {
+            mCalls.add(mName + " " + page);
+        }
+
+        @Override
+        public void onPageCountChanged(int pagesCount) {
+        }
+    }
+}
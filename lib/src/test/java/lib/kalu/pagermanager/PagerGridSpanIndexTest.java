@@ -0,0 +1,83 @@
+package lib.kalu.pagermanager;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description: 数据变化后从受影响的页面重新计算的结果, 与重新创建的索引完全相同
+ */
+public class PagerGridSpanIndexTest {
+
+    @Test
+    public void changedItemMovesBackIntoPreviousPage() {
+        final int[] values = {3, 8, 1, 10, 0, 3, 7};
+        final PagerGridSpanIndex index = new PagerGridSpanIndex(new ValueLookup(values), 1, 2);
+        index.getPageIndexByPos(1);
+
+        values[1] = 7;
+        index.invalidateFrom(1);
+
+        assertSameAsFresh(index, values, 1, 2);
+    }
+
+    @Test
+    public void randomEditsMatchFreshIndex() {
+        final Random random = new Random(20181018L);
+        for (int round = 0; round < 200; round++) {
+            final int rows = 1 + random.nextInt(3);
+            final int columns = 1 + random.nextInt(3);
+            final int[] values = new int[1 + random.nextInt(40)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(12);
+            }
+            final PagerGridSpanIndex index = new PagerGridSpanIndex(new ValueLookup(values), rows, columns);
+            for (int edit = 0; edit < 20; edit++) {
+                // 随机查询, 让索引计算到不同的位置
+                index.getPageIndexByPos(random.nextInt(values.length));
+                final int position = random.nextInt(values.length);
+                values[position] = random.nextInt(12);
+                index.invalidateFrom(position);
+                if (random.nextBoolean()) {
+                    assertSameAsFresh(index, values, rows, columns);
+                }
+            }
+            assertSameAsFresh(index, values, rows, columns);
+        }
+    }
+
+    private static void assertSameAsFresh(PagerGridSpanIndex index, int[] values, int rows, int columns) {
+        final PagerGridSpanIndex fresh = new PagerGridSpanIndex(new ValueLookup(values.clone()), rows, columns);
+        assertEquals(fresh.getPagesCount(values.length), index.getPagesCount(values.length));
+        for (int position = 0; position < values.length; position++) {
+            final String message = "position " + position + " in " + rows + "x" + columns;
+            assertEquals(message, fresh.getPageIndexByPos(position), index.getPageIndexByPos(position));
+            assertEquals(message, fresh.getRow(position), index.getRow(position));
+            assertEquals(message, fresh.getColumn(position), index.getColumn(position));
+        }
+    }
+
+    /**
+     * 值是 3 的倍数时占两行, 是 4 的倍数时占两列
+     */
+    private static final class ValueLookup extends PagerGridSpanSizeLookup {
+
+        private final int[] mValues;
+
+        ValueLookup(int[] values) {
+            mValues = values;
+        }
+
+        @Override
+        public int getRowSpan(int position) {
+            return mValues[position] % 3 == 0 ? 2 : 1;
+        }
+
+        @Override
+        public int getColumnSpan(int position) {
+            return mValues[position] % 4 == 0 ? 2 : 1;
+        }
+    }
+}
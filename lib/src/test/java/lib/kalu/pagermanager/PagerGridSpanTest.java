@@ -0,0 +1,55 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.DefaultItemAnimator;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.Scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description: 跨行跨列条目在数据变化和预布局时的分页
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridSpanTest {
+
+    @Test
+    public void removingItemsDuringPredictiveLayoutDoesNotQueryRemovedPositions() {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 20);
+        final PagerGridTestHarness.CountingAdapter adapter = harness.mAdapter;
+        // 和常见的用法一样从 Adapter 的数据中读取, 超出数据范围时抛出异常
+        harness.mLayoutManager.setSpanSizeLookup(new PagerGridSpanSizeLookup() {
+            @Override
+            public int getColumnSpan(int position) {
+                return adapter.mItems.get(position) % 4 == 0 ? 2 : 1;
+            }
+        });
+        harness.mRecyclerView.setItemAnimator(new DefaultItemAnimator());
+        harness.layout();
+
+        // 不可见条目的移除在预布局之前通知, 可见条目的移除推迟到预布局之后
+        // 预布局按照 19 个条目分页, 位置 16 以后只能从变化之前的结果或者转换后的位置查询
+        // 暂停主线程, 两次移除在同一次布局中处理
+        final Scheduler scheduler = Robolectric.getForegroundThreadScheduler();
+        scheduler.pause();
+        adapter.remove(19, 1);
+        adapter.remove(0, 3);
+        scheduler.unPause();
+        harness.layout();
+
+        final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+        assertEquals(16, layoutManager.getItemCount());
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            final View child = layoutManager.getChildAt(i);
+            final PagerGridLayoutManager.LayoutParams lp = (PagerGridLayoutManager.LayoutParams) child.getLayoutParams();
+            assertTrue(lp.isItemRemoved() || layoutManager.getPosition(child) < 16);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package lib.kalu.pagermanager;
+
+import android.app.Activity;
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.RecyclerViewAccess;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.util.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * description: 测试用的网格, 真实的 RecyclerView + PagerGridLayoutManager + PagerGridSnapHelper
+ * 适配器统计创建, 绑定和回收次数, 条目统计测量和布局次数, 用来检查每翻一页的开销
+ * 帧由 Robolectric 的主线程调度器驱动, 关闭了 ItemAnimator, 计数只包括布局本身
+ */
+final class PagerGridTestHarness {
+
+    static final int WIDTH = 1080;                  // 网格宽度
+    static final int HEIGHT = 720;                  // 网格高度
+
+    private static final int MAX_TASKS = 10000;     // 一次最多执行的主线程任务, 防止任务互相投递停不下来
+    private static final int FRAME_MILLIS = 16;     // 帧间隔, 没有间隔时时钟不走, 滚动动画永远停不下来
+
+    final Activity mActivity;
+    final RecyclerView mRecyclerView;
+    final PagerGridLayoutManager mLayoutManager;
+    final CountingAdapter mAdapter;
+
+    private PagerGridTestHarness(boolean attach, int rows, int columns, int orientation, int itemCount) {
+        ShadowChoreographer.setPostCallbackDelay(FRAME_MILLIS);
+        ShadowChoreographer.setPostFrameCallbackDelay(FRAME_MILLIS);
+        mActivity = Robolectric.setupActivity(Activity.class);
+        mRecyclerView = new RecyclerView(mActivity);
+        mRecyclerView.setItemAnimator(null);
+        mRecyclerView.setLayoutParams(new FrameLayout.LayoutParams(WIDTH, HEIGHT));
+        mLayoutManager = new PagerGridLayoutManager(rows, columns, orientation);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mAdapter = new CountingAdapter(itemCount);
+        mRecyclerView.setAdapter(mAdapter);
+        if (attach) {
+            final FrameLayout root = new FrameLayout(mActivity);
+            root.addView(mRecyclerView);
+            mActivity.setContentView(root);
+            new PagerGridSnapHelper().attachToRecyclerView(mRecyclerView);
+        }
+        layout();
+    }
+
+    /**
+     * 添加到 Activity 中的网格, 滚动, 快速滑动和预取都和真机一样由帧驱动
+     */
+    static PagerGridTestHarness attached(int rows, int columns, int orientation, int itemCount) {
+        return new PagerGridTestHarness(true, rows, columns, orientation, itemCount);
+    }
+
+    /**
+     * 没有添加到窗口的网格, 不会投递帧任务(预取, 翻页事件), 适合直接调用 LayoutManager 的方法
+     */
+    static PagerGridTestHarness detached(int rows, int columns, int orientation, int itemCount) {
+        return new PagerGridTestHarness(false, rows, columns, orientation, itemCount);
+    }
+
+    /**
+     * 立即测量和布局, 然后执行已经投递的帧
+     */
+    void layout() {
+        mRecyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+        runFrames();
+    }
+
+    /**
+     * 执行主线程上投递的所有任务(包括延迟的帧回调), 直到没有新的任务
+     */
+    void runFrames() {
+        final Scheduler scheduler = Robolectric.getForegroundThreadScheduler();
+        for (int i = 0; i < MAX_TASKS && scheduler.size() > 0; i++) {
+            scheduler.advanceToNextPostedRunnable();
+        }
+    }
+
+    /**
+     * 模拟拖动, 每帧滚动 step, 帧之间执行预取等任务
+     */
+    void drag(int dx, int dy, int step) {
+        int x = 0;
+        int y = 0;
+        while (x != dx || y != dy) {
+            final int stepX = dx > x ? Math.min(step, dx - x) : Math.max(-step, dx - x);
+            final int stepY = dy > y ? Math.min(step, dy - y) : Math.max(-step, dy - y);
+            mRecyclerView.scrollBy(stepX, stepY);
+            x += stepX;
+            y += stepY;
+            runFrames();
+        }
+    }
+
+    /**
+     * 快速滑动并等待停止
+     */
+    void fling(int velocityX, int velocityY) {
+        mRecyclerView.fling(velocityX, velocityY);
+        runFrames();
+    }
+
+    RecyclerView.Recycler getRecycler() {
+        return RecyclerViewAccess.getRecycler(mRecyclerView);
+    }
+
+    RecyclerView.State getState() {
+        return RecyclerViewAccess.getState(mRecyclerView);
+    }
+
+    Counts counts() {
+        return mAdapter.mCounts.copy();
+    }
+
+    /**
+     * 创建, 绑定, 回收, 测量和布局的次数
+     */
+    static final class Counts {
+        int created;
+        int bound;
+        int recycled;
+        int measured;
+        int laidOut;
+
+        Counts copy() {
+            final Counts counts = new Counts();
+            counts.created = created;
+            counts.bound = bound;
+            counts.recycled = recycled;
+            counts.measured = measured;
+            counts.laidOut = laidOut;
+            return counts;
+        }
+
+        Counts minus(Counts other) {
+            final Counts counts = new Counts();
+            counts.created = created - other.created;
+            counts.bound = bound - other.bound;
+            counts.recycled = recycled - other.recycled;
+            counts.measured = measured - other.measured;
+            counts.laidOut = laidOut - other.laidOut;
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            return "Counts{created=" + created + ", bound=" + bound + ", recycled=" + recycled
+                    + ", measured=" + measured + ", laidOut=" + laidOut + "}";
+        }
+    }
+
+    /**
+     * 统计测量和布局次数的条目
+     */
+    static final class CountingView extends View {
+
+        private final Counts mCounts;
+
+        CountingView(Context context, Counts counts) {
+            super(context);
+            mCounts = counts;
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mCounts.measured++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            mCounts.laidOut++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+    }
+
+    /**
+     * 统计创建, 绑定和回收次数的适配器, 条目类型按下标轮流取 [0, viewTypeCount)
+     */
+    static final class CountingAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        final Counts mCounts = new Counts();
+        final List<Integer> mItems = new ArrayList<>();
+        private int mNextId = 0;
+        private int mViewTypeCount = 1;
+
+        CountingAdapter(int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mItems.add(mNextId++);
+            }
+        }
+
+        void setViewTypeCount(int count) {
+            mViewTypeCount = count;
+        }
+
+        void insert(int position) {
+            mItems.add(position, mNextId++);
+            notifyItemInserted(position);
+        }
+
+        void remove(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                mItems.remove(position);
+            }
+            notifyItemRangeRemoved(position, count);
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return mItems.get(position) % mViewTypeCount;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            mCounts.created++;
+            return new RecyclerView.ViewHolder(new CountingView(parent.getContext(), mCounts)) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            mCounts.bound++;
+            holder.itemView.setTag(mItems.get(position));
+        }
+
+        @Override
+        public void onViewRecycled(RecyclerView.ViewHolder holder) {
+            mCounts.recycled++;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItems.size();
+        }
+    }
+}
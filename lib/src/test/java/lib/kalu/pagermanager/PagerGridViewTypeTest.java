@@ -0,0 +1,105 @@
+package lib.kalu.pagermanager;
+
+import android.support.v7.widget.DefaultItemAnimator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description: 按类型统计的创建和绑定次数与适配器实际的 onCreateViewHolder, onBindViewHolder 次数一致
+ * 新创建的条目绑定一次, 所以适配器的绑定次数 = 创建次数 + 重新绑定次数
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, manifest = Config.NONE)
+public class PagerGridViewTypeTest {
+
+    @Test
+    public void countsMatchAdapterWhileScrolling() {
+        final PagerGridTestHarness harness = harness(false);
+
+        // 只向前滚动, 回收池中的条目不会回到原来的位置
+        harness.drag(3 * PagerGridTestHarness.WIDTH, 0, 40);
+
+        assertCountsMatch(harness);
+    }
+
+    @Test
+    public void shiftedItemsAreNotCountedAsBound() {
+        final PagerGridTestHarness harness = harness(false);
+
+        harness.mAdapter.insert(0);
+        harness.runFrames();
+
+        assertCountsMatch(harness);
+    }
+
+    @Test
+    public void shiftedItemsAreNotCountedAsBoundWithItemAnimator() {
+        final PagerGridTestHarness harness = harness(true);
+
+        harness.mAdapter.insert(0);
+        harness.runFrames();
+        harness.mAdapter.remove(0, 2);
+        harness.runFrames();
+
+        assertCountsMatch(harness);
+    }
+
+    @Test
+    public void changedItemIsCountedAsBound() {
+        final PagerGridTestHarness harness = harness(false);
+
+        harness.mAdapter.notifyItemChanged(3);
+        harness.runFrames();
+        harness.mAdapter.notifyDataSetChanged();
+        harness.runFrames();
+
+        assertCountsMatch(harness);
+    }
+
+    @Test
+    public void changedItemIsCountedAsBoundWithItemAnimator() {
+        final PagerGridTestHarness harness = harness(true);
+
+        harness.mAdapter.notifyItemChanged(3);
+        harness.runFrames();
+
+        assertCountsMatch(harness);
+    }
+
+    /**
+     * 两种条目类型的 2x3 网格, 停在第一页
+     * 关闭预取, 预取后没有用到的条目不经过 LayoutManager, 无法统计
+     */
+    private static PagerGridTestHarness harness(boolean animate) {
+        final PagerGridTestHarness harness = PagerGridTestHarness.attached(2, 3, PagerGridGeometry.HORIZONTAL, 0);
+        harness.mLayoutManager.setItemPrefetchEnabled(false);
+        harness.mAdapter.setViewTypeCount(2);
+        for (int i = 0; i < 60; i++) {
+            harness.mAdapter.insert(i);
+        }
+        if (animate) {
+            harness.mRecyclerView.setItemAnimator(new DefaultItemAnimator());
+        }
+        harness.runFrames();
+        return harness;
+    }
+
+    private static void assertCountsMatch(PagerGridTestHarness harness) {
+        final PagerGridLayoutManager layoutManager = harness.mLayoutManager;
+        int created = 0;
+        int bound = 0;
+        for (int i = 0; i < layoutManager.getViewTypeCount(); i++) {
+            final PagerGridViewType type = layoutManager.getViewTypeAt(i);
+            created += type.getCreatedCount();
+            bound += type.getBoundCount();
+        }
+        final PagerGridTestHarness.Counts counts = harness.counts();
+        assertEquals("created", counts.created, created);
+        assertEquals("bound", counts.bound, created + bound);
+    }
+}